@@ -1,11 +1,17 @@
 package api;
 
+import model.Emotion;
+import model.EmotionAnalysis;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.apache.commons.text.similarity.LevenshteinDistance;
+import util.FuzzyKeywordIndex;
+import util.InflectionTable;
+import util.KeywordAutomaton;
+import util.TokenizedText;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class MindAnalyzer {
     private static final Logger logger = LoggerFactory.getLogger(MindAnalyzer.class);
@@ -16,6 +22,18 @@ public class MindAnalyzer {
     // 감정 강도 가중치
     private static final Map<String, Integer> EMOTION_WEIGHTS = new HashMap<>();
     
+    // 모든 감정의 키워드를 이어 붙인 검색기 (감정별 키워드 번호는 KEYWORD_OFFSETS 부터 순서대로)
+    private static final KeywordAutomaton KEYWORD_AUTOMATON;
+    private static final Map<String, Integer> KEYWORD_OFFSETS = new HashMap<>();
+    
+    // 유사도 기반 매칭 기준 (이 값보다 유사해야 부분 점수 부여)
+    private static final double SIMILARITY_THRESHOLD = 0.7;
+    private static final FuzzyKeywordIndex FUZZY_INDEX;
+    
+    // 활용형(기뻤다, 슬펐어 ...) -> 기본형 키워드 (정확한 매칭으로 셈)
+    private static final InflectionTable INFLECTIONS;
+    private static final ThreadLocal<MatchBuffers> MATCH_BUFFERS = ThreadLocal.withInitial(MatchBuffers::new);
+    
     static {
         // 긍정적 감정 키워드
         EMOTION_KEYWORDS.put("행복", Arrays.asList(
@@ -67,6 +85,15 @@ public class MindAnalyzer {
         EMOTION_WEIGHTS.put("피로", 60);
         EMOTION_WEIGHTS.put("평온", 50);
         EMOTION_WEIGHTS.put("복잡", 40);
+        
+        List<String> patterns = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : EMOTION_KEYWORDS.entrySet()) {
+            KEYWORD_OFFSETS.put(entry.getKey(), patterns.size());
+            patterns.addAll(entry.getValue());
+        }
+        KEYWORD_AUTOMATON = new KeywordAutomaton(patterns);
+        FUZZY_INDEX = new FuzzyKeywordIndex(patterns, SIMILARITY_THRESHOLD);
+        INFLECTIONS = new InflectionTable(patterns);
     }
     
     /**
@@ -80,8 +107,8 @@ public class MindAnalyzer {
             return "중립";
         }
         
-        String cleanContent = preprocessText(content);
-        Map<String, Double> emotionScores = calculateEmotionScores(cleanContent);
+        TokenizedText text = TokenizedText.tokenize(content);
+        Map<String, Double> emotionScores = calculateEmotionScores(text);
         
         logger.info("Emotion analysis completed for content length: {}", content.length());
         logger.debug("Emotion scores: {}", emotionScores);
@@ -89,26 +116,26 @@ public class MindAnalyzer {
         return determineMainEmotion(emotionScores);
     }
     
-    /**
-     * 텍스트 전처리 (소문자 변환, 특수문자 제거 등)
-     */
-    private String preprocessText(String text) {
-        return text.toLowerCase()
-                  .replaceAll("[^가-힣a-zA-Z0-9\\s]", " ")
-                  .replaceAll("\\s+", " ")
-                  .trim();
-    }    
     /**
      * 각 감정에 대한 점수를 계산합니다.
+     * @param text 전처리된 본문 (소문자 변환, 특수문자 제거 후 단어를 공백 하나로 이은 것)
      */
-    private Map<String, Double> calculateEmotionScores(String content) {
+    private Map<String, Double> calculateEmotionScores(TokenizedText text) {
         Map<String, Double> scores = new HashMap<>();
+        MatchBuffers buffers = MATCH_BUFFERS.get();
+        
+        // 모든 키워드의 정확한 매칭과 활용형 매칭을 한 번에 찾고, 나머지 키워드는 유사 단어를 한 번에 찾음
+        buffers.reset(text.getTokenCount());
+        KEYWORD_AUTOMATON.match(text, buffers.found);
+        findInflectedKeywords(text, buffers);
+        findSimilarWords(text, buffers);
         
         for (Map.Entry<String, List<String>> entry : EMOTION_KEYWORDS.entrySet()) {
             String emotion = entry.getKey();
             List<String> keywords = entry.getValue();
             
-            double score = calculateEmotionScore(content, keywords, emotion);
+            double score = calculateEmotionScore(text.length(), keywords.size(), emotion, buffers,
+                                                 KEYWORD_OFFSETS.get(emotion));
             scores.put(emotion, score);
         }
         
@@ -117,29 +144,26 @@ public class MindAnalyzer {
     
     /**
      * 특정 감정에 대한 점수를 계산합니다.
+     * @param contentLength 전처리된 본문 길이
+     * @param offset 이 감정의 첫 키워드 번호 (i 번째 키워드는 offset + i)
      */
-    private double calculateEmotionScore(String content, List<String> keywords, String emotion) {
+    private double calculateEmotionScore(int contentLength, int keywordCount, String emotion,
+                                         MatchBuffers buffers, int offset) {
         double totalScore = 0;
         int matchCount = 0;
         
-        for (String keyword : keywords) {
+        for (int i = 0; i < keywordCount; i++) {
             // 정확한 매칭
-            if (content.contains(keyword)) {
+            if (buffers.found[offset + i]) {
                 totalScore += 10;
                 matchCount++;
                 continue;
             }
             
-            // 유사도 기반 매칭 (레벤스타인 거리 사용)
-            String[] words = content.split("\\s+");
-            for (String word : words) {
-                if (word.length() >= 2) {
-                    double similarity = calculateSimilarity(keyword, word);
-                    if (similarity > 0.7) { // 70% 이상 유사하면 부분 점수 부여
-                        totalScore += 5 * similarity;
-                        matchCount++;
-                    }
-                }
+            // 유사도 기반 매칭 (본문 단어 순서대로, 70% 이상 유사하면 부분 점수 부여)
+            for (int node = buffers.head[offset + i]; node >= 0; node = buffers.next[node]) {
+                totalScore += 5 * buffers.similarity[node];
+                matchCount++;
             }
         }
         
@@ -150,19 +174,56 @@ public class MindAnalyzer {
         }
         
         // 텍스트 길이 대비 정규화
-        return (totalScore / Math.max(content.length() / 10.0, 1)) + (matchCount * 2);
+        return (totalScore / Math.max(contentLength / 10.0, 1)) + (matchCount * 2);
     }    
     /**
-     * 두 단어의 유사도를 계산합니다.
+     * 기본형 키워드의 활용형 단어를 찾아 정확한 매칭으로 표시합니다. (기뻤다 -> 기쁘다)
+     * 활용형으로 확인된 단어는 유사도 검색을 건너뜁니다.
      */
-    private double calculateSimilarity(String s1, String s2) {
-        if (s1.equals(s2)) return 1.0;
-        
-        LevenshteinDistance ld = new LevenshteinDistance();
-        int distance = ld.apply(s1, s2);
-        int maxLength = Math.max(s1.length(), s2.length());
+    private void findInflectedKeywords(TokenizedText text, MatchBuffers buffers) {
+        for (int token = 0; token < text.getTokenCount(); token++) {
+            int first = text.getFirstOccurrence(token);
+            if (first != token) {
+                buffers.inflected[token] = buffers.inflected[first];
+                continue;
+            }
+            int count = INFLECTIONS.lookup(text, text.getTokenStart(token), text.getTokenEnd(token), buffers.ids);
+            for (int i = 0; i < count; i++) {
+                buffers.found[buffers.ids[i]] = true;
+            }
+            buffers.inflected[token] = count > 0;
+        }
+    }
+    
+    /**
+     * 정확히 일치하지 않은 키워드별로 유사한 본문 단어의 유사도를 단어 순서대로 모읍니다.
+     * (키워드별 연결 리스트 head/next/similarity, 같은 단어는 처음 나왔을 때만 색인을 검색)
+     */
+    private void findSimilarWords(TokenizedText text, MatchBuffers buffers) {
+        boolean[] found = buffers.found;
         
-        return 1.0 - ((double) distance / maxLength);
+        for (int token = 0; token < text.getTokenCount(); token++) {
+            int length = text.getTokenLength(token);
+            if (length < 2 || length > FUZZY_INDEX.getMaxWordLength() || buffers.inflected[token]) {
+                buffers.resultCount[token] = 0;
+                continue;
+            }
+            int first = text.getFirstOccurrence(token);
+            if (first == token) {
+                buffers.ensureResultCapacity(FUZZY_INDEX.getKeywordCount());
+                buffers.resultStart[token] = buffers.results;
+                buffers.resultCount[token] = FUZZY_INDEX.search(text, text.getTokenStart(token), text.getTokenEnd(token),
+                                                                buffers.resultIds, buffers.resultSimilarities,
+                                                                buffers.results);
+                buffers.results += buffers.resultCount[token];
+            }
+            for (int r = buffers.resultStart[first], end = r + buffers.resultCount[first]; r < end; r++) {
+                int id = buffers.resultIds[r];
+                if (!found[id]) {
+                    buffers.append(id, buffers.resultSimilarities[r]);
+                }
+            }
+        }
     }
     
     /**
@@ -201,6 +262,81 @@ public class MindAnalyzer {
         
         return mainEmotion;
     }    
+    /**
+     * 감정 분석 결과를 저장용 형태로 반환합니다. (감정별 점수는 Emotion 코드 순서의 배열)
+     */
+    public EmotionAnalysis analyze(String content) {
+        float[] scores = new float[Emotion.values().length];
+        if (content == null || content.trim().isEmpty()) {
+            return new EmotionAnalysis("중립", 0.0, 0.0, scores);
+        }
+        
+        TokenizedText text = TokenizedText.tokenize(content);
+        Map<String, Double> emotionScores = calculateEmotionScores(text);
+        String mainEmotion = determineMainEmotion(emotionScores);
+        double confidence = calculateConfidence(emotionScores);
+        
+        for (Map.Entry<String, Double> entry : emotionScores.entrySet()) {
+            scores[Emotion.fromLabel(entry.getKey()).getCode()] = entry.getValue().floatValue();
+        }
+        
+        return new EmotionAnalysis(mainEmotion, confidence, calculateIntensity(mainEmotion, confidence), scores,
+                                   extractTokens(text));
+    }
+
+    /**
+     * 여러 일기를 한 번에 분석합니다. (공용 ForkJoinPool 로 나누어 모든 코어에서 분석, 결과는 입력 순서)
+     * 분석 중 쓰는 버퍼는 스레드별이라 작업 스레드끼리 공유하는 상태가 없습니다.
+     * @return 항목별 분석 결과 (분석에 실패한 항목은 null)
+     */
+    public List<EmotionAnalysis> analyzeBatch(List<String> contents) {
+        EmotionAnalysis[] results = new EmotionAnalysis[contents.size()];
+        IntStream.range(0, results.length).parallel().forEach(i -> {
+            try {
+                results[i] = analyze(contents.get(i));
+            } catch (RuntimeException e) {
+                logger.error("Emotion analysis failed for batch entry {}", i, e);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 키워드 통계용 단어 목록 (전처리된 본문에서 2글자 이상인 단어)
+     */
+    private String[] extractTokens(TokenizedText text) {
+        int count = 0;
+        for (int token = 0; token < text.getTokenCount(); token++) {
+            if (text.getTokenLength(token) >= 2) {
+                count++;
+            }
+        }
+        String[] tokens = new String[count];
+        int index = 0;
+        for (int token = 0; token < text.getTokenCount(); token++) {
+            if (text.getTokenLength(token) >= 2) {
+                tokens[index++] = text.getToken(token);
+            }
+        }
+        return tokens;
+    }
+    
+    /**
+     * 신뢰도 계산 (최고 점수를 기준으로 0~1 사이로 정규화)
+     */
+    private double calculateConfidence(Map<String, Double> emotionScores) {
+        double maxScore = emotionScores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+        return Math.min(maxScore / 10.0, 1.0);
+    }
+    
+    /**
+     * 감정 강도 계산 (주요 감정의 가중치 x 신뢰도, 중립은 0)
+     */
+    private double calculateIntensity(String mainEmotion, double confidence) {
+        Integer weight = EMOTION_WEIGHTS.get(mainEmotion.split("\\+")[0]);
+        return weight != null ? confidence * weight / 100.0 : 0.0;
+    }
+    
     /**
      * 감정 분석 결과에 대한 상세 정보를 제공합니다.
      */
@@ -210,22 +346,22 @@ public class MindAnalyzer {
         if (content == null || content.trim().isEmpty()) {
             result.put("emotion", "중립");
             result.put("confidence", 0.0);
+            result.put("intensity", 0.0);
             result.put("scores", new HashMap<>());
             return result;
         }
         
-        String cleanContent = preprocessText(content);
-        Map<String, Double> emotionScores = calculateEmotionScores(cleanContent);
+        TokenizedText text = TokenizedText.tokenize(content);
+        Map<String, Double> emotionScores = calculateEmotionScores(text);
         String mainEmotion = determineMainEmotion(emotionScores);
         
-        // 신뢰도 계산 (최고 점수를 기준으로)
-        double maxScore = emotionScores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-        double confidence = Math.min(maxScore / 10.0, 1.0); // 0~1 사이로 정규화
+        double confidence = calculateConfidence(emotionScores);
         
         result.put("emotion", mainEmotion);
         result.put("confidence", confidence);
+        result.put("intensity", calculateIntensity(mainEmotion, confidence));
         result.put("scores", emotionScores);
-        result.put("wordCount", content.split("\\s+").length);
+        result.put("wordCount", text.getWordCount());
         result.put("analyzedAt", new Date());
         
         logger.info("Detailed emotion analysis: emotion={}, confidence={}", mainEmotion, confidence);
@@ -294,4 +430,64 @@ public class MindAnalyzer {
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 점수 계산 중 쓰는 배열 (스레드별 재사용)
+     */
+    private static final class MatchBuffers {
+        // 키워드별 정확한 매칭 여부
+        final boolean[] found = new boolean[KEYWORD_AUTOMATON.getPatternCount()];
+        // 키워드별 유사 단어 연결 리스트 (head[키워드] -> next[노드] ..., -1 이면 끝)
+        final int[] head = new int[KEYWORD_AUTOMATON.getPatternCount()];
+        final int[] tail = new int[KEYWORD_AUTOMATON.getPatternCount()];
+        int[] next = new int[64];
+        double[] similarity = new double[64];
+        int nodes;
+        // 활용형 키워드 검색 결과
+        final int[] ids = new int[KEYWORD_AUTOMATON.getPatternCount()];
+        // 단어별 활용형 여부
+        boolean[] inflected = new boolean[64];
+        // 단어별 유사 키워드 검색 결과 (resultIds/resultSimilarities[resultStart .. + resultCount])
+        int[] resultStart = new int[64];
+        int[] resultCount = new int[64];
+        int[] resultIds = new int[256];
+        double[] resultSimilarities = new double[256];
+        int results;
+        
+        void reset(int tokenCount) {
+            Arrays.fill(found, false);
+            Arrays.fill(head, -1);
+            nodes = 0;
+            results = 0;
+            if (resultStart.length < tokenCount) {
+                resultStart = new int[Math.max(tokenCount, resultStart.length * 2)];
+                resultCount = new int[resultStart.length];
+                inflected = new boolean[resultStart.length];
+            }
+        }
+        
+        void ensureResultCapacity(int additional) {
+            if (results + additional > resultIds.length) {
+                int capacity = Math.max(results + additional, resultIds.length * 2);
+                resultIds = Arrays.copyOf(resultIds, capacity);
+                resultSimilarities = Arrays.copyOf(resultSimilarities, capacity);
+            }
+        }
+        
+        void append(int keyword, double value) {
+            if (nodes == next.length) {
+                next = Arrays.copyOf(next, nodes * 2);
+                similarity = Arrays.copyOf(similarity, nodes * 2);
+            }
+            next[nodes] = -1;
+            similarity[nodes] = value;
+            if (head[keyword] < 0) {
+                head[keyword] = nodes;
+            } else {
+                next[tail[keyword]] = nodes;
+            }
+            tail[keyword] = nodes;
+            nodes++;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package controller;
+
+import api.MindAnalyzer;
+import com.google.gson.stream.JsonWriter;
+import dao.ReanalysisJob;
+import dao.StatsDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DatabaseUtil;
+import util.RetentionPurge;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 관리 명령 (서버가 돌고 있는 머신에서만 호출 가능)
+ *
+ * POST /admin?action=rebuild-counts - 날짜별 감정 집계 테이블을 diary 로부터 다시 생성
+ * POST /admin?action=reanalysis-start[&fromStart=true][&replaceUnanalyzed=true] - 전체 감정 재분석 시작
+ *      (기본은 중단된 위치부터, replaceUnanalyzed 를 주면 분석 결과가 없던 일기의 감정도 분석 결과로 바꿈)
+ * POST /admin?action=reanalysis-stop - 실행 중인 재분석 중단
+ * GET  /admin?action=reanalysis - 재분석 진행 상황 (처리 속도, 남은 예상 시간)
+ * POST /admin?action=purge&days=N - N 일이 지난 일기를 백그라운드에서 정리
+ * GET  /admin?action=purge - 정리 진행 상황
+ */
+@WebServlet(name = "AdminServlet", urlPatterns = "/admin")
+public class AdminServlet extends HttpServlet {
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LoggerFactory.getLogger(AdminServlet.class);
+
+    private StatsDAO statsDAO;
+    private ReanalysisJob reanalysisJob;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        try {
+            this.statsDAO = new StatsDAO();
+            this.reanalysisJob = new ReanalysisJob(new MindAnalyzer());
+            logger.info("AdminServlet initialized successfully");
+        } catch (Exception e) {
+            logger.error("Failed to initialize AdminServlet", e);
+            throw new ServletException("Failed to initialize AdminServlet", e);
+        }
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!isLocalRequest(request)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        String action = request.getParameter("action");
+        if ("reanalysis".equals(action)) {
+            writeReanalysisStatus(action, true, HttpServletResponse.SC_OK, response);
+            return;
+        }
+        if ("purge".equals(action)) {
+            writePurgeStatus(action, true, HttpServletResponse.SC_OK, response);
+            return;
+        }
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + action);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!isLocalRequest(request)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+
+        String action = request.getParameter("action");
+        if ("rebuild-counts".equals(action)) {
+            boolean rebuilt = statsDAO.rebuildDailyEmotionCounts();
+            logger.info("Admin rebuild of daily emotion counts requested: {}", rebuilt ? "done" : "skipped");
+            JsonWriter out = beginJson(response, rebuilt ? HttpServletResponse.SC_OK : HttpServletResponse.SC_CONFLICT);
+            out.beginObject();
+            out.name("action").value(action);
+            out.name("success").value(rebuilt);
+            out.endObject();
+            out.flush();
+            return;
+        }
+        if ("reanalysis-start".equals(action)) {
+            boolean started = reanalysisJob.start(Boolean.parseBoolean(request.getParameter("fromStart")),
+                                                  Boolean.parseBoolean(request.getParameter("replaceUnanalyzed")));
+            logger.info("Admin reanalysis start requested: {}", started ? "started" : "already running");
+            writeReanalysisStatus(action, started,
+                                  started ? HttpServletResponse.SC_ACCEPTED : HttpServletResponse.SC_CONFLICT, response);
+            return;
+        }
+        if ("reanalysis-stop".equals(action)) {
+            boolean running = reanalysisJob.isRunning();
+            reanalysisJob.stop();
+            logger.info("Admin reanalysis stop requested: {}", running ? "stopping" : "not running");
+            writeReanalysisStatus(action, running,
+                                  running ? HttpServletResponse.SC_ACCEPTED : HttpServletResponse.SC_CONFLICT, response);
+            return;
+        }
+        if ("purge".equals(action)) {
+            int days = parseDays(request.getParameter("days"));
+            if (days <= 0) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "days must be a positive number");
+                return;
+            }
+            boolean started = DatabaseUtil.getInstance().startCleanupOldData(days);
+            logger.info("Admin retention purge ({} days) requested: {}", days, started ? "started" : "already running");
+            writePurgeStatus(action, started,
+                             started ? HttpServletResponse.SC_ACCEPTED : HttpServletResponse.SC_CONFLICT, response);
+            return;
+        }
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + action);
+    }
+
+    private static int parseDays(String value) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 정리 진행 상황 응답 (시작 직후에는 아직 진행 정보가 없거나 이전 실행의 정보일 수 있음)
+     */
+    private void writePurgeStatus(String action, boolean success, int status, HttpServletResponse response)
+            throws IOException {
+        DatabaseUtil databaseUtil = DatabaseUtil.getInstance();
+        RetentionPurge.PurgeProgress progress = databaseUtil.getRetentionProgress();
+        JsonWriter out = beginJson(response, status);
+        out.beginObject();
+        out.name("action").value(action);
+        out.name("success").value(success);
+        out.name("running").value(databaseUtil.isRetentionRunning());
+        if (progress != null) {
+            out.name("progress").beginObject();
+            out.name("cutoffEpochDay").value(progress.cutoffEpochDay);
+            out.name("cursor").value(progress.cursor);
+            out.name("targetId").value(progress.targetId);
+            out.name("deletedRows").value(progress.deletedRows);
+            out.name("percent").value(progress.getProgressPercent());
+            out.name("rowsPerSecond").value(progress.getRowsPerSecond());
+            out.name("freedPages").value(progress.freedPages);
+            out.endObject();
+        }
+        out.endObject();
+        out.flush();
+    }
+
+    /**
+     * 재분석 진행 상황 응답 (시작 직후에는 아직 진행 정보가 없을 수 있음)
+     */
+    private void writeReanalysisStatus(String action, boolean success, int status, HttpServletResponse response)
+            throws IOException {
+        ReanalysisJob.ReanalysisProgress progress = reanalysisJob.getProgress();
+        JsonWriter out = beginJson(response, status);
+        out.beginObject();
+        out.name("action").value(action);
+        out.name("success").value(success);
+        out.name("running").value(reanalysisJob.isRunning());
+        if (progress != null) {
+            out.name("progress").beginObject();
+            out.name("startId").value(progress.startId);
+            out.name("cursor").value(progress.cursor);
+            out.name("targetId").value(progress.targetId);
+            out.name("totalRows").value(progress.totalRows);
+            out.name("analyzedRows").value(progress.analyzedRows);
+            out.name("failedRows").value(progress.failedRows);
+            out.name("changedSummaries").value(progress.changedSummaries);
+            out.name("percent").value(progress.getProgressPercent());
+            out.name("rowsPerSecond").value(progress.getRowsPerSecond());
+            out.name("etaSeconds").value(progress.getEtaSeconds());
+            out.endObject();
+        }
+        out.endObject();
+        out.flush();
+    }
+
+    @Override
+    public void destroy() {
+        // 저장 중인 구간까지 커밋되고, 다음 실행은 reanalysis-start 로 이어서 진행
+        reanalysisJob.stop();
+        logger.info("AdminServlet destroyed");
+        super.destroy();
+    }
+
+    private static JsonWriter beginJson(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        return new JsonWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 관리 명령은 인증이 없으므로 루프백 주소에서 온 요청만 허용
+     */
+    private static boolean isLocalRequest(HttpServletRequest request) {
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package controller;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import util.DeflaterPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 응답 압축 래퍼
+ *
+ * 처음 threshold 바이트까지는 메모리에 모아 두고, 그보다 커지면 압축을 시작합니다.
+ * 작은 응답은 압축하지 않고 Content-Length 와 함께 그대로 보냅니다.
+ */
+final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+        "application/json", "application/javascript", "application/xml", "image/svg+xml");
+
+    // gzip 헤더 (매직, deflate, 플래그 없음, 시간 없음, OS 미지정)
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final String encoding;
+    private final DeflaterPool deflaterPool;
+    private final int threshold;
+
+    private CompressingOutputStream stream;
+    private PrintWriter writer;
+    private long declaredLength = -1;
+
+    CompressingResponseWrapper(HttpServletResponse response, String encoding, DeflaterPool deflaterPool, int threshold) {
+        super(response);
+        this.encoding = encoding;
+        this.deflaterPool = deflaterPool;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        if (stream == null) {
+            stream = new CompressingOutputStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            stream = new CompressingOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    // 길이는 압축 여부가 정해진 뒤 원래 응답에 설정
+    @Override
+    public void setContentLength(int length) {
+        declaredLength = length;
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        declaredLength = length;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            declaredLength = value != null ? Long.parseLong(value) : -1;
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            setHeader(name, value);
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        // 버퍼링 중에는 아직 아무것도 보내지 않았으므로 미커밋
+        return (stream == null || stream.target != null) && super.isCommitted();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discard();
+        declaredLength = -1;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discard();
+    }
+
+    /**
+     * 남은 데이터를 모두 보내고 압축 종료 (정상 완료 시 필터가 호출)
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (stream != null) {
+            stream.finish();
+        }
+    }
+
+    /**
+     * 요청 처리 중 예외 - 아직 전송 전이면 압축 헤더를 지워 오류 페이지가 그대로 나가도록 함
+     */
+    void abort() {
+        if (!super.isCommitted()) {
+            super.resetBuffer();
+            discard();
+        } else if (stream != null) {
+            stream.releaseDeflater();
+        }
+    }
+
+    /**
+     * 버퍼 내용을 버리고 압축 시작 전 상태로 (압축 중이었다면 추가한 Content-Encoding 제거)
+     */
+    private void discard() {
+        if (stream != null) {
+            if (stream.deflater != null) {
+                super.setHeader("Content-Encoding", null);
+            }
+            stream.discard();
+        }
+    }
+
+    private boolean isCompressible() {
+        int status = getStatus();
+        if (status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || containsHeader("Content-Encoding")) {
+            return false;
+        }
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        int separator = contentType.indexOf(';');
+        String mimeType = (separator >= 0 ? contentType.substring(0, separator) : contentType).trim().toLowerCase();
+        return mimeType.startsWith("text/") || COMPRESSIBLE_TYPES.contains(mimeType);
+    }
+
+    /**
+     * threshold 까지 버퍼링 후 압축 또는 원문 전송을 결정하는 출력 스트림
+     */
+    private final class CompressingOutputStream extends ServletOutputStream {
+        private byte[] buffer = new byte[threshold];
+        private int count;
+        // 결정 이후 실제로 쓰는 대상 (압축 스트림 또는 원래 응답 스트림)
+        private OutputStream target;
+        private DeflaterOutputStream deflaterStream;
+        private Deflater deflater;
+        private CRC32 crc;
+        private long uncompressedSize;
+        private boolean finished;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Response has already been finished");
+            }
+            if (target == null) {
+                if (count + len <= threshold) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                start(true);
+            }
+            writeTarget(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // 결정 전에는 버퍼에 둠 (작은 응답을 압축 없이 Content-Length 와 함께 보내기 위해)
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Non-blocking output is not supported by the compression filter");
+        }
+
+        /**
+         * 압축 여부 결정 후 버퍼 내용 전송
+         */
+        private void start(boolean large) throws IOException {
+            OutputStream out = getResponse().getOutputStream();
+            if (large && isCompressible()) {
+                CompressingResponseWrapper.super.setHeader("Content-Encoding", encoding);
+                // 압축된 표현은 바이트가 다르므로 약한 ETag 로 표시
+                String etag = getHeader("ETag");
+                if (etag != null && !etag.startsWith("W/")) {
+                    CompressingResponseWrapper.super.setHeader("ETag", "W/" + etag);
+                }
+                deflater = deflaterPool.borrow();
+                if ("gzip".equals(encoding)) {
+                    out.write(GZIP_HEADER);
+                    crc = new CRC32();
+                }
+                deflaterStream = new DeflaterOutputStream(out, deflater, 8192, true);
+                target = deflaterStream;
+            } else {
+                if (declaredLength >= 0) {
+                    getResponse().setContentLengthLong(declaredLength);
+                } else if (!large) {
+                    getResponse().setContentLength(count);
+                }
+                target = out;
+            }
+            writeTarget(buffer, 0, count);
+            buffer = null;
+            count = 0;
+        }
+
+        private void writeTarget(byte[] b, int off, int len) throws IOException {
+            if (crc != null) {
+                crc.update(b, off, len);
+            }
+            uncompressedSize += len;
+            target.write(b, off, len);
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (target == null) {
+                start(false);
+            }
+            finished = true;
+            if (deflaterStream != null) {
+                try {
+                    deflaterStream.finish();
+                    if (crc != null) {
+                        OutputStream out = getResponse().getOutputStream();
+                        writeIntLE(out, (int) crc.getValue());
+                        writeIntLE(out, (int) uncompressedSize);
+                    }
+                } finally {
+                    releaseDeflater();
+                }
+            }
+        }
+
+        /**
+         * 아직 보내지 않은 내용을 버리고 처음 상태로 (압축 중이었다면 Deflater 반환)
+         */
+        void discard() {
+            releaseDeflater();
+            buffer = new byte[threshold];
+            count = 0;
+            target = null;
+            deflaterStream = null;
+            crc = null;
+            uncompressedSize = 0;
+            finished = false;
+        }
+
+        private void releaseDeflater() {
+            if (deflater != null) {
+                deflaterPool.release(deflater);
+                deflater = null;
+            }
+        }
+
+        private void writeIntLE(OutputStream out, int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >>> 8) & 0xff);
+            out.write((value >>> 16) & 0xff);
+            out.write((value >>> 24) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package controller;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DeflaterPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 응답 압축 필터 (gzip, deflate)
+ *
+ * 동적 응답은 threshold 이상일 때만 풀에서 빌린 Deflater 로 압축하고,
+ * 정적 자원은 빌드 시 만들어 둔 .gz 파일이 있으면 압축 과정 없이 그대로 보냅니다.
+ * .gz 목록은 필터 초기화 때 한 번 읽으므로 실행 중에 추가된 .gz 는 재시작 후 반영됩니다.
+ */
+public class CompressionFilter implements Filter {
+    private static final Logger logger = LoggerFactory.getLogger(CompressionFilter.class);
+
+    private static final int DEFAULT_THRESHOLD = 1024;
+    private static final int DEFAULT_LEVEL = 6;
+    private static final int DEFAULT_POOL_SIZE = 16;
+    private static final String STATIC_PREFIX = "/assets/";
+
+    private ServletContext servletContext;
+    private int threshold;
+    private DeflaterPool gzipPool;
+    private DeflaterPool deflatePool;
+    // 경로별 미리 압축된 자원 (init 에서 한 번 만들고 이후 읽기만 하므로 요청 경로에 따라 커지지 않음)
+    private Map<String, Precompressed> precompressed = Map.of();
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        servletContext = filterConfig.getServletContext();
+        threshold = getIntParam(filterConfig, "threshold", DEFAULT_THRESHOLD);
+        int level = getIntParam(filterConfig, "level", DEFAULT_LEVEL);
+        int poolSize = getIntParam(filterConfig, "poolSize", DEFAULT_POOL_SIZE);
+        gzipPool = new DeflaterPool(level, true, poolSize);
+        deflatePool = new DeflaterPool(level, false, poolSize);
+        precompressed = loadPrecompressedAssets();
+        logger.info("압축 필터 초기화 - threshold: {}, level: {}, poolSize: {}, 미리 압축된 자원: {}",
+                    threshold, level, poolSize, precompressed.size());
+    }
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain) throws IOException, ServletException {
+        if (!(req instanceof HttpServletRequest) || !(resp instanceof HttpServletResponse)) {
+            chain.doFilter(req, resp);
+            return;
+        }
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) resp;
+
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+
+        // .gz 가 없으면 (개발 실행 등) 일반 응답처럼 압축
+        if (path.startsWith(STATIC_PREFIX) && acceptsEncoding(acceptEncoding, "gzip")
+                && servePrecompressed(request, response, path)) {
+            return;
+        }
+
+        String encoding = negotiate(acceptEncoding);
+        if (encoding == null || "HEAD".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader("Vary", "Accept-Encoding");
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response, encoding,
+            "gzip".equals(encoding) ? gzipPool : deflatePool, threshold);
+        boolean completed = false;
+        try {
+            chain.doFilter(request, wrapper);
+            completed = true;
+        } finally {
+            if (completed) {
+                wrapper.finish();
+            } else {
+                wrapper.abort();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        gzipPool.close();
+        deflatePool.close();
+        precompressed = Map.of();
+    }
+
+    /**
+     * 미리 압축된 .gz 자원 전송 - 해당 파일이 없으면 false
+     */
+    private boolean servePrecompressed(HttpServletRequest request, HttpServletResponse response, String path) throws IOException {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        Precompressed gz = precompressed.get(path);
+        if (gz == null) {
+            return false;
+        }
+
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setDateHeader("Last-Modified", gz.lastModified);
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            ifModifiedSince = -1;
+        }
+        if (ifModifiedSince >= 0 && gz.lastModified <= ifModifiedSince) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        if (gz.mimeType != null) {
+            response.setContentType(gz.mimeType);
+        }
+        response.setHeader("Content-Encoding", "gzip");
+        response.setContentLength(gz.bytes.length);
+        if ("GET".equals(method)) {
+            response.getOutputStream().write(gz.bytes);
+        }
+        return true;
+    }
+
+    /**
+     * STATIC_PREFIX 아래에서 원본과 .gz 가 함께 있는 자원을 모두 읽음 (하위 디렉터리 포함)
+     */
+    private Map<String, Precompressed> loadPrecompressedAssets() {
+        Map<String, Precompressed> assets = new HashMap<>();
+        collectPrecompressed(STATIC_PREFIX, assets);
+        return Map.copyOf(assets);
+    }
+
+    private void collectPrecompressed(String directory, Map<String, Precompressed> assets) {
+        Set<String> paths = servletContext.getResourcePaths(directory);
+        if (paths == null) {
+            return;
+        }
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                collectPrecompressed(path, assets);
+            } else if (path.endsWith(".gz") && paths.contains(path.substring(0, path.length() - 3))) {
+                String originalPath = path.substring(0, path.length() - 3);
+                Precompressed gz = loadPrecompressed(originalPath);
+                if (gz != null) {
+                    assets.put(originalPath, gz);
+                }
+            }
+        }
+    }
+
+    private Precompressed loadPrecompressed(String path) {
+        try {
+            URL original = servletContext.getResource(path);
+            URL compressed = servletContext.getResource(path + ".gz");
+            if (original == null || compressed == null) {
+                return null;
+            }
+            byte[] bytes;
+            try (InputStream in = compressed.openStream()) {
+                bytes = in.readAllBytes();
+            }
+            // HTTP 날짜는 초 단위
+            long lastModified = original.openConnection().getLastModified() / 1000 * 1000;
+            return new Precompressed(bytes, servletContext.getMimeType(path), lastModified);
+        } catch (IOException e) {
+            logger.warn("미리 압축된 자원 로드 실패: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Accept-Encoding 협상 - gzip 우선, 둘 다 허용하지 않으면 null
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptsEncoding(acceptEncoding, "gzip")) {
+            return "gzip";
+        }
+        if (acceptsEncoding(acceptEncoding, "deflate")) {
+            return "deflate";
+        }
+        return null;
+    }
+
+    /**
+     * 해당 인코딩의 q 값이 0 보다 큰지 확인 (명시되지 않았으면 "*" 의 q 값을 따름)
+     */
+    static boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim();
+            double q = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(encoding)) {
+                return q > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard > 0;
+    }
+
+    private static int getIntParam(FilterConfig config, String name, int defaultValue) {
+        String value = config.getInitParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("잘못된 필터 설정 {}={}, 기본값 {} 사용", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static final class Precompressed {
+        final byte[] bytes;
+        final String mimeType;
+        final long lastModified;
+
+        Precompressed(byte[] bytes, String mimeType, long lastModified) {
+            this.bytes = bytes;
+            this.mimeType = mimeType;
+            this.lastModified = lastModified;
+        }
+    }
+}
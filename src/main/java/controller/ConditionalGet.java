@@ -0,0 +1,60 @@
+package controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import util.DataVersion;
+
+/**
+ * 데이터 버전 기반 조건부 GET 처리 (ETag, 304 Not Modified)
+ *
+ * 버전 확인은 메모리 카운터만 읽으므로 304 응답에는 DB 접근이 없습니다.
+ * Last-Modified 는 보내지 않습니다 - HTTP 날짜는 초 단위라 같은 초에 쓰인 데이터를 구분하지 못해
+ * If-Modified-Since 로는 오래된 응답에 304 를 줄 수 있고, ETag 가 데이터 버전을 그대로 담고 있기 때문입니다.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * 검증 헤더를 설정하고, 클라이언트가 가진 응답이 최신이면 304 를 보낸 뒤 true 반환
+     *
+     * @param variant 데이터 외에 응답을 바꾸는 값 (예: 오늘 날짜), 없으면 null
+     */
+    static boolean checkNotModified(HttpServletRequest request, HttpServletResponse response,
+                                    DataVersion dataVersion, String variant) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return false;
+        }
+
+        String etag = "\"" + dataVersion.getTag() + (variant != null ? "-" + variant : "") + "\"";
+
+        response.setHeader("ETag", etag);
+        // 매번 재검증하도록
+        response.setHeader("Cache-Control", "no-cache");
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        boolean notModified = ifNoneMatch != null && matches(ifNoneMatch, etag);
+
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        return notModified;
+    }
+
+    /**
+     * If-None-Match 목록 비교 (약한 비교 - W/ 접두사 무시, "*" 는 항상 일치)
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,9 +1,13 @@
 package controller;
 
 import dao.DiaryDAO;
+import dao.DiaryPage;
+import dao.DiaryQuery;
+import dao.SearchResult;
 import model.Diary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import util.DatabaseUtil;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -15,8 +19,10 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @WebServlet(name = "ListServlet", urlPatterns = "/list")
 public class ListServlet extends HttpServlet {
@@ -24,6 +30,7 @@ public class ListServlet extends HttpServlet {
     
     private DiaryDAO diaryDAO;
     private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final String SORT_RELEVANCE = "relevance";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @Override
@@ -46,6 +53,13 @@ public class ListServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         response.setContentType("text/html; charset=UTF-8");
         
+        // 마지막 응답 이후 쓰기가 없으면 304 (최근 7일 개수가 날짜에 따라 바뀌므로 날짜도 태그에 포함)
+        LocalDate today = LocalDate.now();
+        if (ConditionalGet.checkNotModified(request, response, DatabaseUtil.getInstance().getDataVersion(),
+                                            today.toString())) {
+            return;
+        }
+        
         try {
             // 요청 파라미터 추출
             FilterParams filterParams = extractFilterParams(request);
@@ -53,11 +67,11 @@ public class ListServlet extends HttpServlet {
             logger.info("List request - emotion: {}, date: {}, search: {}, page: {}", 
                        filterParams.emotion, filterParams.date, filterParams.searchKeyword, filterParams.page);
             
-            // 일기 목록 조회
-            List<Diary> diaries = fetchDiaries(filterParams);
+            // 일기 목록 조회 (페이지 단위)
+            DiaryPage diaryPage = fetchDiaryPage(request, filterParams);
             
             // 페이징 처리
-            PaginationResult paginationResult = applyPagination(diaries, filterParams.page, filterParams.pageSize);
+            PaginationResult paginationResult = applyPagination(diaryPage, filterParams.page, filterParams.pageSize);
             
             // 요청 속성 설정
             setRequestAttributes(request, paginationResult, filterParams);
@@ -95,6 +109,10 @@ public class ListServlet extends HttpServlet {
             params.date = null;
         }
         
+        // 기간 필터
+        params.fromDate = emptyToNull(request.getParameter("from"));
+        params.toDate = emptyToNull(request.getParameter("to"));
+        
         // 검색 키워드
         params.searchKeyword = request.getParameter("search");
         if (params.searchKeyword != null && params.searchKeyword.trim().isEmpty()) {
@@ -118,124 +136,99 @@ public class ListServlet extends HttpServlet {
             params.pageSize = DEFAULT_PAGE_SIZE;
         }
         
+        // 키셋 페이징 커서
+        params.afterCursor = request.getParameter("after");
+        params.beforeCursor = request.getParameter("before");
+        
         // 정렬 방식
         params.sortBy = request.getParameter("sortBy");
-        if (params.sortBy == null || (!params.sortBy.equals("date_asc") && !params.sortBy.equals("date_desc"))) {
+        if (params.sortBy == null || (!params.sortBy.equals("date_asc") && !params.sortBy.equals("date_desc")
+                && !params.sortBy.equals(SORT_RELEVANCE))) {
             params.sortBy = "date_desc"; // 기본값: 최신순
         }
+        // 관련도순은 검색어가 있을 때만 의미가 있음
+        if (SORT_RELEVANCE.equals(params.sortBy) && params.searchKeyword == null) {
+            params.sortBy = "date_desc";
+        }
         
         return params;
     }
     
     /**
-     * 필터링 조건에 따라 일기 목록 조회
+     * 필터 조건을 DiaryQuery 로 조합하여 현재 페이지 조회
+     * 관련도순이면 전문 검색 결과를 사용하고 발췌문을 요청 속성으로 전달
      */
-    private List<Diary> fetchDiaries(FilterParams params) {
-        List<Diary> diaries;
+    private DiaryPage fetchDiaryPage(HttpServletRequest request, FilterParams params) {
+        DiaryQuery query = new DiaryQuery()
+                .withEmotion(params.emotion)
+                .containing(params.searchKeyword)
+                .sortBy(params.sortBy)
+                .after(params.afterCursor)
+                .before(params.beforeCursor)
+                .limit(params.pageSize);
         
-        try {
-            // 날짜 필터가 있는 경우
-            if (params.date != null) {
-                if (isValidDate(params.date)) {
-                    diaries = diaryDAO.getDiariesByDate(params.date);
-                    logger.info("Fetched {} diaries for date: {}", diaries.size(), params.date);
-                } else {
-                    logger.warn("Invalid date format: {}", params.date);
-                    diaries = diaryDAO.getAllDiaries();
-                }
-            }            // 감정 필터가 있는 경우
-            else if (params.emotion != null) {
-                diaries = diaryDAO.getDiariesByEmotion(params.emotion);
-                logger.info("Fetched {} diaries for emotion: {}", diaries.size(), params.emotion);
-            }
-            // 전체 조회
-            else {
-                diaries = diaryDAO.getAllDiaries();
-                logger.info("Fetched {} total diaries", diaries.size());
+        // 날짜 필터 (특정 날짜가 기간보다 우선)
+        LocalDate date = parseDate(params.date);
+        if (date != null) {
+            query.onDate(date);
+        } else {
+            LocalDate from = parseDate(params.fromDate);
+            LocalDate to = parseDate(params.toDate);
+            if (from != null || to != null) {
+                query.between(from, to);
             }
+        }
+        
+        if (SORT_RELEVANCE.equals(params.sortBy)) {
+            SearchResult result = diaryDAO.search(query, params.page);
             
-            // 검색 키워드 필터링
-            if (params.searchKeyword != null) {
-                diaries = filterByKeyword(diaries, params.searchKeyword);
-                logger.info("After keyword filtering: {} diaries", diaries.size());
+            List<Diary> diaries = new ArrayList<>(result.getHits().size());
+            Map<Long, String> snippets = new HashMap<>();
+            for (SearchResult.Hit hit : result.getHits()) {
+                diaries.add(hit.getDiary());
+                snippets.put(hit.getDiary().getId(), hit.getSnippet());
             }
+            request.setAttribute("searchSnippets", snippets);
             
-            // 정렬 처리
-            diaries = applySorting(diaries, params.sortBy);
-            
-            return diaries;
-            
-        } catch (Exception e) {
-            logger.error("Error fetching diaries", e);
-            return diaryDAO.getAllDiaries(); // 오류 시 전체 목록 반환
+            return new DiaryPage(diaries, result.getTotalCount(), result.hasPrevious(), result.hasNext());
         }
+        
+        return diaryDAO.findDiaries(query);
     }
     
     /**
-     * 날짜 형식 검증
+     * 날짜 파싱 (형식이 잘못되면 null)
      */
-    private boolean isValidDate(String dateString) {
+    private LocalDate parseDate(String dateString) {
+        if (dateString == null) {
+            return null;
+        }
         try {
-            LocalDate.parse(dateString, DATE_FORMATTER);
-            return true;
+            return LocalDate.parse(dateString, DATE_FORMATTER);
         } catch (DateTimeParseException e) {
-            return false;
-        }
-    }    
-    /**
-     * 키워드로 일기 내용 필터링
-     */
-    private List<Diary> filterByKeyword(List<Diary> diaries, String keyword) {
-        String lowerKeyword = keyword.toLowerCase().trim();
-        
-        return diaries.stream()
-                .filter(diary -> diary.getContent().toLowerCase().contains(lowerKeyword) ||
-                               (diary.getEmotionSummary() != null && 
-                                diary.getEmotionSummary().toLowerCase().contains(lowerKeyword)))
-                .collect(Collectors.toList());
-    }
-    
-    /**
-     * 정렬 적용
-     */
-    private List<Diary> applySorting(List<Diary> diaries, String sortBy) {
-        if ("date_asc".equals(sortBy)) {
-            return diaries.stream()
-                    .sorted((d1, d2) -> d1.getCreatedAt().compareTo(d2.getCreatedAt()))
-                    .collect(Collectors.toList());
-        } else {
-            // date_desc (기본값)
-            return diaries.stream()
-                    .sorted((d1, d2) -> d2.getCreatedAt().compareTo(d1.getCreatedAt()))
-                    .collect(Collectors.toList());
+            logger.warn("Invalid date format: {}", dateString);
+            return null;
         }
     }
     
     /**
      * 페이징 처리
      */
-    private PaginationResult applyPagination(List<Diary> allDiaries, int currentPage, int pageSize) {
+    private PaginationResult applyPagination(DiaryPage diaryPage, int currentPage, int pageSize) {
         PaginationResult result = new PaginationResult();        
-        result.totalItems = allDiaries.size();
+        result.totalItems = diaryPage.getTotalCount();
         result.totalPages = (int) Math.ceil((double) result.totalItems / pageSize);
-        result.currentPage = Math.min(currentPage, Math.max(1, result.totalPages));
         result.pageSize = pageSize;
+        result.diaries = diaryPage.getDiaries();
         
-        // 현재 페이지의 일기 목록 계산
-        int startIndex = (result.currentPage - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, result.totalItems);
-        
-        if (startIndex < result.totalItems && startIndex >= 0) {
-            result.diaries = allDiaries.subList(startIndex, endIndex);
-        } else {
-            result.diaries = List.of();
-        }
-        
-        // 페이징 네비게이션 정보
-        result.hasPrevious = result.currentPage > 1;
-        result.hasNext = result.currentPage < result.totalPages;
+        // 페이징 네비게이션 정보 (페이지 번호는 표시용, 이동은 커서로 처리)
+        result.hasPrevious = diaryPage.hasPrevious();
+        result.hasNext = diaryPage.hasNext();
+        result.currentPage = result.hasPrevious ? Math.max(2, Math.min(currentPage, result.totalPages)) : 1;
         result.previousPage = result.hasPrevious ? result.currentPage - 1 : 1;
-        result.nextPage = result.hasNext ? result.currentPage + 1 : result.totalPages;
+        result.nextPage = result.hasNext ? result.currentPage + 1 : result.currentPage;
+        result.previousCursor = diaryPage.getPreviousCursor();
+        result.nextCursor = diaryPage.getNextCursor();
         
         logger.info("Pagination applied - page {}/{}, showing {} items", 
                    result.currentPage, result.totalPages, result.diaries.size());
@@ -243,6 +236,10 @@ public class ListServlet extends HttpServlet {
         return result;
     }
     
+    private String emptyToNull(String value) {
+        return (value != null && value.trim().isEmpty()) ? null : value;
+    }
+    
     /**
      * 요청 속성 설정
      */
@@ -256,10 +253,14 @@ public class ListServlet extends HttpServlet {
         request.setAttribute("hasNext", pagination.hasNext);
         request.setAttribute("previousPage", pagination.previousPage);
         request.setAttribute("nextPage", pagination.nextPage);
+        request.setAttribute("previousCursor", pagination.previousCursor);
+        request.setAttribute("nextCursor", pagination.nextCursor);
         
         // 필터 정보
         request.setAttribute("selectedEmotion", params.emotion);
         request.setAttribute("selectedDate", params.date);
+        request.setAttribute("fromDate", params.fromDate);
+        request.setAttribute("toDate", params.toDate);
         request.setAttribute("searchKeyword", params.searchKeyword);
         request.setAttribute("sortBy", params.sortBy);
         
@@ -294,10 +295,14 @@ public class ListServlet extends HttpServlet {
     private static class FilterParams {
         String emotion;
         String date;
+        String fromDate;
+        String toDate;
         String searchKeyword;
         int page = 1;
         int pageSize = DEFAULT_PAGE_SIZE;
         String sortBy = "date_desc";
+        String afterCursor;
+        String beforeCursor;
     }
     
     /**
@@ -313,5 +318,7 @@ public class ListServlet extends HttpServlet {
         boolean hasNext;
         int previousPage;
         int nextPage;
+        String previousCursor;
+        String nextCursor;
     }
 }
\ No newline at end of file
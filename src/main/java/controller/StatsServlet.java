@@ -1,12 +1,12 @@
 package controller;
 
-import dao.DiaryDAO;
-import model.Diary;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
+import dao.StatsDAO;
+import com.google.gson.stream.JsonWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import util.ActivityIndex;
+import util.DatabaseUtil;
+import util.KeywordSketch;
 
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -14,29 +14,62 @@ import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.time.format.DateTimeParseException;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
 
 @WebServlet(name = "StatsServlet", urlPatterns = "/stats")
 public class StatsServlet extends HttpServlet {
     private static final Logger logger = LoggerFactory.getLogger(StatsServlet.class);
     
-    private DiaryDAO diaryDAO;
-    private Gson gson;
+    private StatsDAO statsDAO;
     
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
     private static final String[] EMOTION_ORDER = {"행복", "평온", "복잡", "피로", "불안", "슬픔", "분노"};
+    
+    // 타임라인 설정 - 기간이 길어도 응답 구간 수는 MAX_TIMELINE_POINTS 이하
+    private static final int DEFAULT_TIMELINE_DAYS = 30;
+    private static final int DEFAULT_HEATMAP_DAYS = 365;
+    private static final int MAX_TIMELINE_DAYS = 36500;
+    private static final int MAX_TIMELINE_POINTS = 120;
+    
+    // 상위 키워드 개수 (limit 파라미터, 스케치 용량보다 작게 제한)
+    private static final int DEFAULT_KEYWORD_LIMIT = 10;
+    private static final int MAX_KEYWORD_LIMIT = 50;
+    
+    // 월별 통계 기간 (from/to 파라미터, 최대 MAX_MONTHLY_MONTHS 개월)
+    private static final int DEFAULT_MONTHLY_MONTHS = 12;
+    private static final int MAX_MONTHLY_MONTHS = 1200;
+    
+    // 인코딩된 응답 캐시 (요청 종류/기간/날짜별, 데이터 버전이 바뀌면 무효)
+    private static final int RESPONSE_CACHE_SIZE = 32;
+    private final Map<String, CachedResponse> responseCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > RESPONSE_CACHE_SIZE;
+            }
+        });
 
     @Override
     public void init() throws ServletException {
         super.init();
         try {
-            this.diaryDAO = new DiaryDAO();
-            this.gson = new Gson();
+            this.statsDAO = new StatsDAO();
             logger.info("StatsServlet initialized successfully");
         } catch (Exception e) {
             logger.error("Failed to initialize StatsServlet", e);
@@ -48,253 +81,485 @@ public class StatsServlet extends HttpServlet {
     protected void doGet(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
         
+        // 마지막 응답 이후 쓰기가 없으면 304 (통계 기간과 연속 작성일은 오늘 날짜 기준이므로 날짜도 태그에 포함)
+        LocalDate today = LocalDate.now();
+        if (ConditionalGet.checkNotModified(request, response, DatabaseUtil.getInstance().getDataVersion(),
+                                            today.toString())) {
+            return;
+        }
+        
+        // 통계 페이지 (요약 카드와 연속 작성일을 채워 stats.jsp 로 전달)
+        if ("page".equals(request.getParameter("action"))) {
+            showStatsPage(request, response);
+            return;
+        }
+        
         // JSON 응답 설정
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         
+        String statsType = normalizeType(request.getParameter("type"));
+        int days = switch (statsType) {
+            case "timeline", "intensity" -> parseDays(request.getParameter("days"), DEFAULT_TIMELINE_DAYS);
+            case "activity" -> parseDays(request.getParameter("days"), DEFAULT_HEATMAP_DAYS);
+            default -> 0;
+        };
+        YearMonth month = null;
+        int limit = 0;
+        if ("keywords".equals(statsType)) {
+            month = parseMonth(request.getParameter("month"), YearMonth.from(today));
+            limit = parseLimit(request.getParameter("limit"));
+        }
+        // 월별 통계 기간 (기본 최근 12개월)
+        YearMonth fromMonth = null;
+        YearMonth toMonth = null;
+        if ("monthly".equals(statsType)) {
+            toMonth = parseMonth(request.getParameter("to"), YearMonth.from(today));
+            fromMonth = parseFromMonth(request.getParameter("from"), toMonth);
+        }
+        String cacheKey = statsType + "|" + days + "|" + today + "|" + month + "|" + limit + "|" + fromMonth + "|" + toMonth;
+        
+        // 변경이 없으면 인코딩해 둔 바이트를 그대로 전송
+        // 조회 전에 읽은 데이터 버전으로 저장하므로 조회 중 쓰기가 있으면 다음 요청에서 다시 계산됨
+        long dataVersion = DatabaseUtil.getInstance().getDataVersion().get();
+        CachedResponse cached = responseCache.get(cacheKey);
+        if (cached != null && cached.dataVersion == dataVersion) {
+            response.setContentLength(cached.body.length);
+            response.getOutputStream().write(cached.body);
+            logger.debug("Stats data served from cache for type: {}", statsType);
+            return;
+        }
+        
         try {
-            String statsType = request.getParameter("type");
-            JsonObject statsData = new JsonObject();
+            // 조회가 모두 끝날 때까지 메모리에 인코딩 (응답 크기는 구간 수와 개월 수로 제한됨)
+            // 조회 중 오류가 나도 아직 보낸 것이 없으므로 ETag 없는 오류 응답으로 바꿀 수 있음
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+            JsonWriter out = new JsonWriter(new BufferedWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8)));
             
-            if (statsType == null || statsType.equals("all")) {
-                // 전체 통계 데이터 반환
-                statsData = getAllStats();
-            } else if (statsType.equals("emotion")) {
-                // 감정별 통계
-                statsData = getEmotionStats();
-            } else if (statsType.equals("monthly")) {
-                // 월별 통계
-                statsData = getMonthlyStats();
-            } else if (statsType.equals("recent")) {
-                // 최근 7일 통계
-                statsData = getRecentStats();
-            } else {
-                // 기본값: 전체 통계
-                statsData = getAllStats();
+            switch (statsType) {
+                case "emotion" -> writeEmotionStats(out);           // 감정별 통계
+                case "monthly" -> writeMonthlyStats(out, fromMonth, toMonth); // 월별 통계
+                case "recent" -> writeRecentStats(out);             // 최근 7일 통계
+                case "timeline" -> writeTimelineStats(out, days);   // 기간별 작성 추이
+                case "activity" -> writeActivityStats(out, days);   // 연속 작성일 및 작성일 히트맵
+                case "intensity" -> writeIntensityStats(out, days); // 감정 강도/신뢰도 추이
+                case "keywords" -> writeKeywordStats(out, month, limit); // 월별 자주 쓴 단어
+                default -> writeAllStats(out);                      // 전체 통계
             }
-            
-            // JSON 응답 전송
-            PrintWriter out = response.getWriter();
-            out.print(gson.toJson(statsData));
             out.flush();
+            byte[] body = buffer.toByteArray();
             
+            // 조회가 모두 성공한 응답만 캐시 (DAO 오류는 예외로 여기까지 오지 않음)
+            responseCache.put(cacheKey, new CachedResponse(dataVersion, body));
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
             logger.info("Stats data sent successfully for type: {}", statsType);
             
         } catch (Exception e) {
             logger.error("Error generating stats", e);
+            if (response.isCommitted()) {
+                // 완성된 본문을 보내다 실패한 경우 (클라이언트 연결 종료 등)
+                return;
+            }
+            // 오류 응답이 데이터 버전 ETag 로 재검증되어 다음 쓰기까지 304 로 남지 않도록 헤더까지 초기화
+            response.reset();
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            response.setHeader("Cache-Control", "no-store");
             
-            JsonObject errorResponse = new JsonObject();
-            errorResponse.addProperty("error", "통계 데이터를 불러오는 중 오류가 발생했습니다.");
-            
-            PrintWriter out = response.getWriter();
-            out.print(gson.toJson(errorResponse));
+            JsonWriter out = new JsonWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            out.beginObject();
+            out.name("error").value("통계 데이터를 불러오는 중 오류가 발생했습니다.");
+            out.endObject();
             out.flush();
         }
-    }    
+    }
+    
     /**
-     * 전체 통계 데이터 생성
+     * type 파라미터 정규화 (알 수 없는 값은 전체 통계)
      */
-    private JsonObject getAllStats() {
-        JsonObject allStats = new JsonObject();
-        
+    private static String normalizeType(String statsType) {
+        if (statsType == null) {
+            return "all";
+        }
+        return switch (statsType) {
+            case "emotion", "monthly", "recent", "timeline", "activity", "intensity", "keywords" -> statsType;
+            default -> "all";
+        };
+    }
+    
+    /**
+     * 통계 페이지 요약 데이터 설정 후 stats.jsp 로 포워드
+     */
+    private void showStatsPage(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
         try {
-            // 전체 일기 수
-            List<Diary> allDiaries = diaryDAO.getAllDiaries();
-            allStats.addProperty("totalDiaries", allDiaries.size());
+            LocalDate today = LocalDate.now();
+            ActivityIndex activityIndex = DatabaseUtil.getInstance().getActivityIndex();
             
-            // 감정별 통계 추가
-            JsonObject emotionStats = getEmotionStatsData(allDiaries);
-            allStats.add("emotions", emotionStats);
+            request.setAttribute("totalDiaries", statsDAO.getTotalCount(null, null));
+            request.setAttribute("recentDiaries", statsDAO.getTotalCount(today.minusDays(7), null));
+            request.setAttribute("monthlyDiaries", statsDAO.getTotalCount(today.minusDays(30), null));
+            request.setAttribute("writingStreak", activityIndex.getCurrentStreak(today));
             
-            // 최근 활동 통계
-            JsonObject recentActivity = getRecentActivityData(allDiaries);
-            allStats.add("recentActivity", recentActivity);
+            statsDAO.getEmotionCounts(null, null).entrySet().stream()
+                .filter(entry -> !entry.getKey().isEmpty())
+                .max(Map.Entry.comparingByValue())
+                .ifPresent(entry -> request.setAttribute("mostFrequentEmotion", entry.getKey()));
             
-            // 월별 작성 횟수
-            JsonArray monthlyData = getMonthlyStatsData(allDiaries);
-            allStats.add("monthly", monthlyData);
+            Map<String, Integer> recentActivity = new HashMap<>();
+            recentActivity.put("today", statsDAO.getTotalCount(today, null));
+            recentActivity.put("thisWeek", statsDAO.getTotalCount(today.minusDays(7), null));
+            recentActivity.put("thisMonth", statsDAO.getTotalCount(today.minusDays(30), null));
+            recentActivity.put("last3Months", statsDAO.getTotalCount(today.minusMonths(3), null));
+            request.setAttribute("recentActivity", recentActivity);
+            
+            // 이번 달 자주 쓴 단어
+            request.setAttribute("topKeywords", statsDAO.getKeywordSketch(YearMonth.from(today)).top(DEFAULT_KEYWORD_LIMIT));
             
         } catch (Exception e) {
-            logger.error("Error generating all stats", e);
+            logger.error("Error preparing stats page", e);
+            // 오류 페이지가 ETag 로 재검증되어 다음 쓰기까지 계속 보이지 않도록 저장 금지
+            response.setHeader("Cache-Control", "no-store");
+            request.setAttribute("error", true);
+            request.setAttribute("errorMessage", "통계 데이터를 불러오는 중 오류가 발생했습니다.");
         }
         
-        return allStats;
+        request.getRequestDispatcher("stats.jsp").forward(request, response);
     }
     
     /**
-     * 감정별 통계 데이터 생성
+     * 전체 통계 데이터 작성
      */
-    private JsonObject getEmotionStats() {
-        JsonObject emotionStats = new JsonObject();
+    private void writeAllStats(JsonWriter out) throws IOException, SQLException {
+        int totalDiaries = statsDAO.getTotalCount(null, null);
         
-        try {
-            List<Diary> allDiaries = diaryDAO.getAllDiaries();
-            JsonObject emotionData = getEmotionStatsData(allDiaries);
-            emotionStats.add("data", emotionData);
-            emotionStats.addProperty("total", allDiaries.size());
-            
-        } catch (Exception e) {
-            logger.error("Error generating emotion stats", e);
-        }
+        out.beginObject();
+        
+        // 전체 일기 수
+        out.name("totalDiaries").value(totalDiaries);
         
-        return emotionStats;
-    }    
+        // 감정별 통계
+        out.name("emotions");
+        writeEmotionCounts(out, null);
+        
+        // 최근 활동 통계
+        out.name("recentActivity");
+        writeRecentActivity(out);
+        
+        // 월별 작성 횟수
+        out.name("monthly");
+        YearMonth currentMonth = YearMonth.now();
+        writeMonthlyCounts(out, currentMonth.minusMonths(DEFAULT_MONTHLY_MONTHS - 1), currentMonth);
+        
+        out.endObject();
+    }
+    
+    /**
+     * 감정별 통계 데이터 작성
+     */
+    private void writeEmotionStats(JsonWriter out) throws IOException, SQLException {
+        out.beginObject();
+        out.name("data");
+        writeEmotionCounts(out, null);
+        out.name("total").value(statsDAO.getTotalCount(null, null));
+        out.endObject();
+    }
+    
     /**
-     * 월별 통계 데이터 생성
+     * 월별 통계 데이터 작성 (from ~ to, 긴 기간은 월 구간으로 나누어 병렬 집계)
      */
-    private JsonObject getMonthlyStats() {
-        JsonObject monthlyStats = new JsonObject();
+    private void writeMonthlyStats(JsonWriter out, YearMonth fromMonth, YearMonth toMonth) throws IOException, SQLException {
+        out.beginObject();
+        out.name("from").value(fromMonth.format(MONTH_FORMATTER));
+        out.name("to").value(toMonth.format(MONTH_FORMATTER));
+        out.name("data");
+        writeMonthlyCounts(out, fromMonth, toMonth);
+        out.endObject();
+    }
+    
+    /**
+     * 최근 7일 통계 데이터 작성
+     */
+    private void writeRecentStats(JsonWriter out) throws IOException, SQLException {
+        LocalDate sevenDaysAgo = LocalDate.now().minusDays(7);
         
-        try {
-            List<Diary> allDiaries = diaryDAO.getAllDiaries();
-            JsonArray monthlyData = getMonthlyStatsData(allDiaries);
-            monthlyStats.add("data", monthlyData);
-            
-        } catch (Exception e) {
-            logger.error("Error generating monthly stats", e);
+        out.beginObject();
+        out.name("totalRecentDiaries").value(statsDAO.getTotalCount(sevenDaysAgo, null));
+        out.name("emotions");
+        writeEmotionCounts(out, sevenDaysAgo);
+        out.endObject();
+    }
+    
+    /**
+     * 최근 days 일간 작성 추이 - 구간 단위(일/주/월/연)는 기간에 따라 서버에서 선택
+     */
+    private void writeTimelineStats(JsonWriter out, int days) throws IOException, SQLException {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        
+        out.beginObject();
+        out.name("success").value(true);
+        out.name("days").value(days);
+        out.name("from").value(from.toString());
+        out.name("to").value(to.toString());
+        
+        StatsDAO.Timeline timeline = statsDAO.getTimeline(from, to, MAX_TIMELINE_POINTS);
+        out.name("granularity").value(timeline.granularity.name().toLowerCase());
+        
+        out.name("dates").beginArray();
+        for (LocalDate bucketStart : timeline.bucketStarts) {
+            out.value(timeline.granularity.label(bucketStart));
+        }
+        out.endArray();
+        
+        out.name("counts").beginArray();
+        for (int count : timeline.counts) {
+            out.value(count);
         }
+        out.endArray();
         
-        return monthlyStats;
+        out.name("dominant").beginArray();
+        for (int i = 0; i < timeline.size(); i++) {
+            String emotion = timeline.getDominantEmotion(i);
+            if (emotion != null) {
+                out.value(emotion);
+            } else {
+                out.nullValue();
+            }
+        }
+        out.endArray();
+        
+        // 감정이 없는 구간도 0 으로 출력
+        out.name("emotions").beginObject();
+        for (String emotion : EMOTION_ORDER) {
+            int[] values = timeline.emotionCounts.get(emotion);
+            out.name(emotion).beginArray();
+            for (int i = 0; i < timeline.size(); i++) {
+                out.value(values != null ? values[i] : 0);
+            }
+            out.endArray();
+        }
+        out.endObject();
+        
+        out.endObject();
     }
     
     /**
-     * 최근 7일 통계 데이터 생성
+     * 연속 작성일과 최근 days 일간 작성 여부 (heatmap 은 from 부터 하루당 '1'/'0' 한 글자)
      */
-    private JsonObject getRecentStats() {
-        JsonObject recentStats = new JsonObject();
+    private void writeActivityStats(JsonWriter out, int days) throws IOException, SQLException {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        ActivityIndex activityIndex = DatabaseUtil.getInstance().getActivityIndex();
         
-        try {
-            // 최근 7일 데이터 필터링
-            LocalDate sevenDaysAgo = LocalDate.now().minusDays(7);
-            List<Diary> allDiaries = diaryDAO.getAllDiaries();
-            
-            List<Diary> recentDiaries = allDiaries.stream()
-                .filter(diary -> {
-                    try {
-                        LocalDate diaryDate = LocalDate.parse(diary.getCreatedAt().substring(0, 10));
-                        return !diaryDate.isBefore(sevenDaysAgo);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .collect(Collectors.toList());
-            
-            recentStats.addProperty("totalRecentDiaries", recentDiaries.size());
-            
-            JsonObject emotionData = getEmotionStatsData(recentDiaries);
-            recentStats.add("emotions", emotionData);
-            
-        } catch (Exception e) {
-            logger.error("Error generating recent stats", e);
+        BitSet activeDays = activityIndex.getActiveDays(from, to);
+        char[] heatmap = new char[days];
+        for (int i = 0; i < days; i++) {
+            heatmap[i] = activeDays.get(i) ? '1' : '0';
         }
         
-        return recentStats;
-    }    
+        out.beginObject();
+        out.name("success").value(true);
+        out.name("days").value(days);
+        out.name("from").value(from.toString());
+        out.name("to").value(to.toString());
+        out.name("currentStreak").value(activityIndex.getCurrentStreak(to));
+        out.name("longestStreak").value(activityIndex.getLongestStreak());
+        out.name("activeDays").value(activityIndex.countActiveDays(from, to));
+        out.name("heatmap").value(new String(heatmap));
+        out.endObject();
+    }
+    
     /**
-     * 감정별 통계 데이터 헬퍼 메소드
+     * 최근 days 일간 감정 강도/신뢰도 평균 추이 (0 ~ 1, 소수점 3자리)
      */
-    private JsonObject getEmotionStatsData(List<Diary> diaries) {
-        JsonObject emotionData = new JsonObject();
+    private void writeIntensityStats(JsonWriter out, int days) throws IOException, SQLException {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        StatsDAO.IntensityTrend trend = statsDAO.getIntensityTrend(from, to, MAX_TIMELINE_POINTS);
         
-        // 감정별 카운트
-        Map<String, Integer> emotionCounts = new HashMap<>();
-        for (String emotion : EMOTION_ORDER) {
-            emotionCounts.put(emotion, 0);
+        out.beginObject();
+        out.name("success").value(true);
+        out.name("days").value(days);
+        out.name("from").value(from.toString());
+        out.name("to").value(to.toString());
+        out.name("granularity").value(trend.granularity.name().toLowerCase());
+        out.name("analyzed").value(trend.getTotalCount());
+        out.name("averageIntensity").value(round3(trend.getOverallIntensity()));
+        out.name("averageConfidence").value(round3(trend.getOverallConfidence()));
+        
+        out.name("dates").beginArray();
+        for (LocalDate bucketStart : trend.bucketStarts) {
+            out.value(trend.granularity.label(bucketStart));
         }
+        out.endArray();
         
-        for (Diary diary : diaries) {
-            String emotion = diary.getEmotionSummary();
-            if (emotion != null && emotionCounts.containsKey(emotion)) {
-                emotionCounts.put(emotion, emotionCounts.get(emotion) + 1);
-            }
+        out.name("counts").beginArray();
+        for (int count : trend.counts) {
+            out.value(count);
         }
+        out.endArray();
         
-        // JSON으로 변환
-        for (String emotion : EMOTION_ORDER) {
-            emotionData.addProperty(emotion, emotionCounts.get(emotion));
+        out.name("intensity").beginArray();
+        for (int i = 0; i < trend.size(); i++) {
+            out.value(round3(trend.getAverageIntensity(i)));
+        }
+        out.endArray();
+        
+        out.name("confidence").beginArray();
+        for (int i = 0; i < trend.size(); i++) {
+            out.value(round3(trend.getAverageConfidence(i)));
         }
+        out.endArray();
         
-        return emotionData;
+        out.endObject();
     }
     
     /**
-     * 최근 활동 데이터 헬퍼 메소드
+     * 월별 상위 키워드와 오차 범위 (실제 개수는 count - error ~ count 사이)
      */
-    private JsonObject getRecentActivityData(List<Diary> diaries) {
-        JsonObject activityData = new JsonObject();
+    private void writeKeywordStats(JsonWriter out, YearMonth month, int limit) throws IOException, SQLException {
+        KeywordSketch sketch = statsDAO.getKeywordSketch(month);
+        List<KeywordSketch.Entry> keywords = sketch.top(limit);
         
+        out.beginObject();
+        out.name("success").value(true);
+        out.name("month").value(month.format(MONTH_FORMATTER));
+        out.name("totalWords").value(sketch.getTotal());
+        out.name("maxError").value(sketch.getMaxError());
+        out.name("keywords").beginArray();
+        for (KeywordSketch.Entry entry : keywords) {
+            out.beginObject();
+            out.name("word").value(entry.keyword);
+            out.name("count").value(entry.count);
+            out.name("error").value(entry.error);
+            out.name("guaranteed").value(entry.guaranteed);
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+    }
+    
+    private static double round3(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+    
+    /**
+     * days 파라미터 해석 (없거나 잘못된 값은 기본값, 1 ~ MAX_TIMELINE_DAYS 로 제한)
+     */
+    private int parseDays(String daysParam, int defaultDays) {
+        if (daysParam == null || daysParam.isBlank()) {
+            return defaultDays;
+        }
         try {
-            LocalDate today = LocalDate.now();
-            LocalDate lastWeek = today.minusDays(7);
-            LocalDate lastMonth = today.minusDays(30);
-            
-            long thisWeekCount = diaries.stream()
-                .filter(diary -> {
-                    try {
-                        LocalDate diaryDate = LocalDate.parse(diary.getCreatedAt().substring(0, 10));
-                        return !diaryDate.isBefore(lastWeek);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
-            
-            long thisMonthCount = diaries.stream()
-                .filter(diary -> {
-                    try {
-                        LocalDate diaryDate = LocalDate.parse(diary.getCreatedAt().substring(0, 10));
-                        return !diaryDate.isBefore(lastMonth);
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .count();
-            
-            activityData.addProperty("thisWeek", thisWeekCount);
-            activityData.addProperty("thisMonth", thisMonthCount);
-            
-        } catch (Exception e) {
-            logger.error("Error calculating recent activity", e);
+            return Math.max(1, Math.min(MAX_TIMELINE_DAYS, Integer.parseInt(daysParam.trim())));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid days parameter: {}", daysParam);
+            return defaultDays;
+        }
+    }
+    
+    /**
+     * 월 파라미터 해석 (yyyy-MM, 없거나 잘못된 값은 기본값)
+     */
+    private YearMonth parseMonth(String monthParam, YearMonth defaultMonth) {
+        if (monthParam == null || monthParam.isBlank()) {
+            return defaultMonth;
+        }
+        try {
+            return YearMonth.parse(monthParam.trim(), MONTH_FORMATTER);
+        } catch (DateTimeParseException e) {
+            logger.warn("Invalid month parameter: {}", monthParam);
+            return defaultMonth;
         }
+    }
+    
+    /**
+     * limit 파라미터 해석 (없거나 잘못된 값은 기본값, 1 ~ MAX_KEYWORD_LIMIT 로 제한)
+     */
+    private int parseLimit(String limitParam) {
+        if (limitParam == null || limitParam.isBlank()) {
+            return DEFAULT_KEYWORD_LIMIT;
+        }
+        try {
+            return Math.max(1, Math.min(MAX_KEYWORD_LIMIT, Integer.parseInt(limitParam.trim())));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid limit parameter: {}", limitParam);
+            return DEFAULT_KEYWORD_LIMIT;
+        }
+    }
+    
+    /**
+     * 감정별 개수 객체 작성 (since 이후, null 이면 전체 기간)
+     */
+    private void writeEmotionCounts(JsonWriter out, LocalDate since) throws IOException, SQLException {
+        Map<String, Integer> emotionCounts = statsDAO.getEmotionCounts(since, null);
         
-        return activityData;
-    }    
+        out.beginObject();
+        for (String emotion : EMOTION_ORDER) {
+            out.name(emotion).value(emotionCounts.getOrDefault(emotion, 0));
+        }
+        out.endObject();
+    }
+    
     /**
-     * 월별 통계 데이터 헬퍼 메소드
+     * 최근 활동 객체 작성
      */
-    private JsonArray getMonthlyStatsData(List<Diary> diaries) {
-        JsonArray monthlyArray = new JsonArray();
+    private void writeRecentActivity(JsonWriter out) throws IOException, SQLException {
+        LocalDate today = LocalDate.now();
         
-        try {
-            // 최근 12개월 데이터 생성
-            LocalDate currentDate = LocalDate.now();
-            
-            for (int i = 11; i >= 0; i--) {
-                LocalDate monthDate = currentDate.minusMonths(i);
-                String monthKey = monthDate.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-                
-                long monthCount = diaries.stream()
-                    .filter(diary -> {
-                        try {
-                            String diaryDateStr = diary.getCreatedAt().substring(0, 7); // yyyy-MM
-                            return diaryDateStr.equals(monthKey);
-                        } catch (Exception e) {
-                            return false;
-                        }
-                    })
-                    .count();
-                
-                JsonObject monthData = new JsonObject();
-                monthData.addProperty("month", monthKey);
-                monthData.addProperty("count", monthCount);
-                monthlyArray.add(monthData);
+        out.beginObject();
+        out.name("thisWeek").value(statsDAO.getTotalCount(today.minusDays(7), null));
+        out.name("thisMonth").value(statsDAO.getTotalCount(today.minusDays(30), null));
+        out.endObject();
+    }
+    
+    /**
+     * 월별 작성 횟수 배열 작성 (작성일 수와 가장 많이 기록된 감정 포함)
+     */
+    private void writeMonthlyCounts(JsonWriter out, YearMonth fromMonth, YearMonth toMonth) throws IOException, SQLException {
+        SortedMap<YearMonth, StatsDAO.MonthlyStats> monthlyStats = statsDAO.getMonthlyStats(fromMonth, toMonth);
+        
+        out.beginArray();
+        for (StatsDAO.MonthlyStats stats : monthlyStats.values()) {
+            out.beginObject();
+            out.name("month").value(stats.month.format(MONTH_FORMATTER));
+            out.name("count").value(stats.total);
+            out.name("activeDays").value(stats.activeDays);
+            String dominant = stats.getDominantEmotion();
+            if (dominant != null) {
+                out.name("dominant").value(dominant);
             }
-            
-        } catch (Exception e) {
-            logger.error("Error calculating monthly stats", e);
+            out.endObject();
         }
+        out.endArray();
+    }
+    
+    /**
+     * 월별 통계 시작 월 해석 (없거나 잘못된 값은 to 기준 최근 12개월, to 이후이거나 너무 이르면 범위 안으로 제한)
+     */
+    private YearMonth parseFromMonth(String fromParam, YearMonth toMonth) {
+        YearMonth defaultFrom = toMonth.minusMonths(DEFAULT_MONTHLY_MONTHS - 1);
+        YearMonth fromMonth = parseMonth(fromParam, defaultFrom);
+        YearMonth earliest = toMonth.minusMonths(MAX_MONTHLY_MONTHS - 1);
+        if (fromMonth.isAfter(toMonth)) {
+            return toMonth;
+        }
+        return fromMonth.isBefore(earliest) ? earliest : fromMonth;
+    }
+    
+    /**
+     * 인코딩된 응답 캐시 항목 (계산 시점의 데이터 버전)
+     */
+    private static class CachedResponse {
+        final long dataVersion;
+        final byte[] body;
         
-        return monthlyArray;
+        CachedResponse(long dataVersion, byte[] body) {
+            this.dataVersion = dataVersion;
+            this.body = body;
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package controller;
 
 import dao.DiaryDAO;
 import api.MindAnalyzer;
+import model.EmotionAnalysis;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,11 +64,12 @@ public class WriteServlet extends HttpServlet {
                 return;
             }
             
-            // 감정 분석 수행
-            String analyzedEmotion = performEmotionAnalysis(content, userEmotion);
+            // 감정 분석 수행 (사용자가 감정을 선택해도 강도/신뢰도 통계를 위해 점수는 저장)
+            EmotionAnalysis analysis = analyzeContent(content);
+            String analyzedEmotion = performEmotionAnalysis(userEmotion, analysis);
             
             // 데이터베이스에 저장
-            boolean saveResult = saveDiaryToDatabase(content, analyzedEmotion);
+            boolean saveResult = saveDiaryToDatabase(content, analyzedEmotion, analysis);
             
             if (saveResult) {
                 handleSuccess(request, response, analyzedEmotion);
@@ -120,33 +122,40 @@ public class WriteServlet extends HttpServlet {
     }
     
     /**
-     * 감정 분석 수행
+     * 감정 점수 분석 (실패 시 null - 일기는 분석 결과 없이 저장)
      */
-    private String performEmotionAnalysis(String content, String userEmotion) {
+    private EmotionAnalysis analyzeContent(String content) {
         try {
-            // 사용자가 직접 감정을 선택한 경우
-            if (userEmotion != null && !userEmotion.trim().isEmpty() && !userEmotion.equals("")) {
-                logger.info("User provided emotion: {}", userEmotion);
-                return userEmotion;
-            }
-            
-            // AI 감정 분석 수행
-            String analyzedEmotion = mindAnalyzer.analyzeEmotion(content);
-            logger.info("AI analyzed emotion: {}", analyzedEmotion);
-            
-            return analyzedEmotion;
-            
+            return mindAnalyzer.analyze(content);
         } catch (Exception e) {
             logger.error("Error during emotion analysis", e);
+            return null;
+        }
+    }
+    
+    /**
+     * 감정 결정 (사용자 선택 우선)
+     */
+    private String performEmotionAnalysis(String userEmotion, EmotionAnalysis analysis) {
+        // 사용자가 직접 감정을 선택한 경우
+        if (userEmotion != null && !userEmotion.trim().isEmpty()) {
+            logger.info("User provided emotion: {}", userEmotion);
+            return userEmotion;
+        }
+        
+        if (analysis == null) {
             return "중립"; // 분석 실패 시 기본값
         }
+        
+        logger.info("AI analyzed emotion: {}", analysis.getEmotion());
+        return analysis.getEmotion();
     }    
     /**
      * 데이터베이스에 일기 저장
      */
-    private boolean saveDiaryToDatabase(String content, String emotion) {
+    private boolean saveDiaryToDatabase(String content, String emotion, EmotionAnalysis analysis) {
         try {
-            boolean result = diaryDAO.insertDiary(content, emotion);
+            boolean result = diaryDAO.insertDiary(content, emotion, analysis);
             if (result) {
                 logger.info("Diary saved successfully with emotion: {}", emotion);
             } else {
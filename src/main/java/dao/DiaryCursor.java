@@ -0,0 +1,57 @@
+package dao;
+
+import model.Diary;
+
+/**
+ * 키셋 페이징 커서 - (created_at, id) 위치를 나타냄
+ *
+ * 문자열 형식: "{id}_{created_at}"
+ */
+public class DiaryCursor {
+    private final String createdAt;
+    private final long id;
+
+    public DiaryCursor(String createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * 일기의 정렬 키로 커서 생성
+     */
+    public static DiaryCursor of(Diary diary) {
+        return new DiaryCursor(diary.getCreatedAt(), diary.getId());
+    }
+
+    /**
+     * 커서 문자열 파싱 (형식이 잘못되면 null)
+     */
+    public static DiaryCursor parse(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        int separator = token.indexOf('_');
+        if (separator <= 0 || separator == token.length() - 1) {
+            return null;
+        }
+        try {
+            long id = Long.parseLong(token.substring(0, separator));
+            return new DiaryCursor(token.substring(separator + 1), id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id + "_" + createdAt;
+    }
+}
\ No newline at end of file
@@ -1,77 +1,179 @@
 package dao;
 
 import model.Diary;
+import model.DiaryMeta;
+import model.EmotionAnalysis;
+import model.Emotion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import util.DatabaseUtil;
+import util.KeywordSketch;
 
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DiaryDAO {
     private static final Logger logger = LoggerFactory.getLogger(DiaryDAO.class);
-    private static final String DB_URL = "jdbc:sqlite:mindiary.db";
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    // 날짜 조건은 숫자 타임스탬프 컬럼의 인덱스 범위 탐색으로 처리
+    public static final String SELECT_BY_DAY_SQL = """
+        SELECT id, content, emotion_summary, created_at
+        FROM diary
+        WHERE created_day = ?
+        ORDER BY created_at_ms DESC
+        """;
+    public static final String COUNT_SINCE_SQL = "SELECT COUNT(*) as count FROM diary WHERE created_at_ms >= ?";
+
+    private static final String INSERT_SQL = """
+        INSERT INTO diary (content, emotion_summary, created_at, updated_at, created_at_ms, created_day)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+    private static final String INSERT_ANALYSIS_SQL = """
+        INSERT INTO emotion_analyses (diary_id, day, emotion, confidence, intensity, scores)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+    private static final String SELECT_SKETCH_SQL = "SELECT sketch FROM keyword_sketches WHERE month = ?";
+    private static final String UPSERT_SKETCH_SQL = """
+        INSERT INTO keyword_sketches (month, total, sketch) VALUES (?, ?, ?)
+        ON CONFLICT (month) DO UPDATE SET total = excluded.total, sketch = excluded.sketch
+        """;
+    private static final long INSERT_TIMEOUT_SECONDS = 30;
+
+    private final DatabaseUtil databaseUtil;
+
     public DiaryDAO() {
-        initializeDatabase();
+        // 스키마는 DatabaseUtil 초기화 시 마이그레이션으로 준비됨
+        this.databaseUtil = DatabaseUtil.getInstance();
     }
 
     /**
-     * 데이터베이스 초기화 - 테이블 생성
+     * 새로운 일기 저장 - 그룹 커밋이 완료될 때까지 대기
      */
-    private void initializeDatabase() {
-        String createTableSQL = """
-            CREATE TABLE IF NOT EXISTS diary (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                content TEXT NOT NULL,
-                emotion_summary TEXT,
-                created_at TEXT NOT NULL,
-                updated_at TEXT NOT NULL
-            )
-            """;
+    public boolean insertDiary(String content, String emotionSummary) {
+        return insertDiary(content, emotionSummary, null);
+    }
 
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            
-            stmt.execute(createTableSQL);
-            logger.info("Database initialized successfully");
-            
-        } catch (SQLException e) {
-            logger.error("Database initialization failed", e);
-            throw new RuntimeException("Failed to initialize database", e);
+    /**
+     * 새로운 일기와 감정 분석 결과 저장 - 그룹 커밋이 완료될 때까지 대기
+     */
+    public boolean insertDiary(String content, String emotionSummary, EmotionAnalysis analysis) {
+        try {
+            long id = insertDiaryAsync(content, emotionSummary, analysis).get(INSERT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            logger.info("Diary inserted successfully. id: {}", id);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while inserting diary", e);
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.error("Failed to insert diary", e);
+            return false;
         }
     }
 
     /**
-     * 새로운 일기 저장
+     * 새로운 일기 저장 요청 - 동시 요청과 한 트랜잭션으로 묶여 커밋된 후 새 일기 id 로 완료
      */
-    public boolean insertDiary(String content, String emotionSummary) {
-        String insertSQL = """
-            INSERT INTO diary (content, emotion_summary, created_at, updated_at)
-            VALUES (?, ?, ?, ?)
-            """;
+    public CompletableFuture<Long> insertDiaryAsync(String content, String emotionSummary) {
+        return insertDiaryAsync(content, emotionSummary, null);
+    }
 
-        String now = LocalDateTime.now().format(formatter);
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
-            
-            pstmt.setString(1, content);
-            pstmt.setString(2, emotionSummary);
-            pstmt.setString(3, now);
-            pstmt.setString(4, now);
-            
-            int result = pstmt.executeUpdate();
-            logger.info("Diary inserted successfully. Rows affected: {}", result);
-            return result > 0;            
-        } catch (SQLException e) {
-            logger.error("Failed to insert diary", e);
-            return false;
+    /**
+     * 새로운 일기 저장 요청 - 감정 분석 결과가 있으면 같은 트랜잭션에서 함께 저장
+     */
+    public CompletableFuture<Long> insertDiaryAsync(String content, String emotionSummary, EmotionAnalysis analysis) {
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+        String now = createdAt.format(formatter);
+        long createdAtMs = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long createdDay = createdAt.toLocalDate().toEpochDay();
+
+        return databaseUtil.getWriter().submit(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                pstmt.setString(1, content);
+                pstmt.setString(2, emotionSummary);
+                pstmt.setString(3, now);
+                pstmt.setString(4, now);
+                pstmt.setLong(5, createdAtMs);
+                pstmt.setLong(6, createdDay);
+                pstmt.executeUpdate();
+            }
+            long id;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                id = rs.next() ? rs.getLong(1) : 0L;
+            }
+            if (analysis != null) {
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ANALYSIS_SQL)) {
+                    pstmt.setLong(1, id);
+                    pstmt.setLong(2, createdDay);
+                    pstmt.setString(3, analysis.getEmotion());
+                    pstmt.setDouble(4, analysis.getConfidence());
+                    pstmt.setDouble(5, analysis.getIntensity());
+                    pstmt.setBytes(6, analysis.toScoreBlob());
+                    pstmt.executeUpdate();
+                }
+                if (analysis.getTokens().length > 0) {
+                    updateKeywordSketch(conn, createdAt.getYear() * 100 + createdAt.getMonthValue(), analysis.getTokens());
+                }
+            }
+            return id;
+        }).thenApply(id -> {
+            // 커밋된 후에만 작성일 색인에 반영하고, 색인을 반영한 응답이 캐시되도록 버전을 한 번 더 올림
+            databaseUtil.getActivityIndex().markActive(createdDay);
+            databaseUtil.getDataVersion().bump();
+            return id;
+        });
+    }
+
+    /**
+     * 월별 키워드 스케치에 단어 반영 (writer 트랜잭션 안에서 읽고 다시 저장하므로 롤백되면 함께 취소됨)
+     */
+    static void updateKeywordSketch(Connection conn, int month, String[] tokens) throws SQLException {
+        byte[] stored = null;
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECT_SKETCH_SQL)) {
+            pstmt.setInt(1, month);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    stored = rs.getBytes("sketch");
+                }
+            }
+        }
+
+        KeywordSketch sketch;
+        try {
+            sketch = KeywordSketch.fromBytes(stored);
+        } catch (IOException e) {
+            // 읽을 수 없는 스케치는 새로 시작 (근사 통계이므로 일기 저장은 계속)
+            logger.warn("Resetting unreadable keyword sketch for month {}", month, e);
+            sketch = new KeywordSketch(KeywordSketch.DEFAULT_CAPACITY);
+        }
+        sketch.offerAll(tokens);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SKETCH_SQL)) {
+            pstmt.setInt(1, month);
+            pstmt.setLong(2, sketch.getTotal());
+            pstmt.setBytes(3, sketch.toBytes());
+            pstmt.executeUpdate();
         }
     }
 
@@ -80,24 +182,19 @@ public class DiaryDAO {
      */
     public List<Diary> getAllDiaries() {
         String selectSQL = """
-            SELECT content, emotion_summary, created_at
+            SELECT id, content, emotion_summary, created_at
             FROM diary
             ORDER BY created_at DESC
             """;
         
         List<Diary> diaries = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = databaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(selectSQL)) {
             
             while (rs.next()) {
-                Diary diary = new Diary(
-                    rs.getString("content"),
-                    rs.getString("emotion_summary"),
-                    rs.getString("created_at")
-                );
-                diaries.add(diary);
+                diaries.add(mapDiary(rs));
             }
             
             logger.info("Retrieved {} diaries", diaries.size());            
@@ -108,12 +205,276 @@ public class DiaryDAO {
         return diaries;
     }
 
+    /**
+     * 조건 조회 - 필터, 정렬, 키셋 페이징을 모두 SQL 에서 처리
+     */
+    public DiaryPage findDiaries(DiaryQuery query) {
+        List<Object> params = new ArrayList<>();
+        String selectSQL = query.toSelectSql(params);
+        int pageSize = query.getPageSize();
+
+        List<Diary> diaries = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+
+            bindParameters(pstmt, params);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    diaries.add(mapDiary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to find diaries: {}", query, e);
+        }
+
+        boolean hasMore = diaries.size() > pageSize;
+        if (hasMore) {
+            diaries.remove(diaries.size() - 1);
+        }
+        if (query.isBackward()) {
+            Collections.reverse(diaries);
+        }
+
+        boolean hasPrevious = query.isBackward() ? hasMore : query.hasCursor();
+        boolean hasNext = query.isBackward() || hasMore;
+        logger.info("Found {} diaries for {}", diaries.size(), query);
+
+        return new DiaryPage(diaries, countDiaries(query), hasPrevious, hasNext);
+    }
+
+    /**
+     * 조건에 맞는 일기 개수 조회 (커서와 무관)
+     */
+    public int countDiaries(DiaryQuery query) {
+        List<Object> params = new ArrayList<>();
+        String countSQL = query.toCountSql(params);
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(countSQL)) {
+
+            bindParameters(pstmt, params);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to count diaries: {}", query, e);
+            return 0;
+        }
+    }
+
+    /**
+     * 조건에 맞는 일기 메타데이터를 id 순으로 콜백에 전달 - 본문을 읽지 않고 한 행씩 처리하므로 메모리 사용량이 일정함
+     *
+     * @return 전달한 행 수 (오류 시 -1)
+     */
+    public long forEachMetadata(DiaryQuery query, Consumer<DiaryMeta> consumer) {
+        List<Object> params = new ArrayList<>();
+        String metadataSQL = query.toMetadataSql(params);
+        long count = 0;
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(metadataSQL)) {
+
+            pstmt.setFetchSize(databaseUtil.getStreamFetchSize());
+            bindParameters(pstmt, params);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapMetadata(rs));
+                    count++;
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            logger.error("Failed to read diary metadata after {} rows: {}", count, query, e);
+            return -1;
+        }
+    }
+
+    /**
+     * 조건에 맞는 일기 메타데이터 Stream (id 순)
+     *
+     * Stream 이 읽기 커넥션을 점유하므로 반드시 try-with-resources 로 닫아야 합니다.
+     * 순회 중 읽기 오류는 IllegalStateException 으로 전달됩니다.
+     */
+    public Stream<DiaryMeta> streamMetadata(DiaryQuery query) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String metadataSQL = query.toMetadataSql(params);
+
+        Connection conn = databaseUtil.getConnection();
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = conn.prepareStatement(metadataSQL);
+            pstmt.setFetchSize(databaseUtil.getStreamFetchSize());
+            bindParameters(pstmt, params);
+            ResultSet rs = pstmt.executeQuery();
+
+            PreparedStatement statement = pstmt;
+            Spliterator<DiaryMeta> spliterator = new Spliterators.AbstractSpliterator<>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super DiaryMeta> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(mapMetadata(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new IllegalStateException("Failed to read diary metadata", e);
+                    }
+                }
+            };
+            return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeQuietly(rs, statement, conn));
+        } catch (SQLException e) {
+            closeQuietly(null, pstmt, conn);
+            throw e;
+        }
+    }
+
+    /**
+     * 전문 검색 - 관련도(bm25)순으로 정렬된 페이지와 하이라이트된 발췌문 반환
+     */
+    public SearchResult search(String keyword, int page, int pageSize) {
+        return search(new DiaryQuery().containing(keyword).limit(pageSize), page);
+    }
+
+    /**
+     * 전문 검색 - query 의 키워드로 검색하고 날짜/감정 등 나머지 조건으로 범위를 제한
+     *
+     * 3글자 미만 검색어는 trigram 색인을 쓸 수 없어 LIKE 검색(최신순)으로 처리합니다.
+     */
+    public SearchResult search(DiaryQuery query, int page) {
+        String keyword = query.getKeyword();
+        int currentPage = Math.max(1, page);
+        int pageSize = query.getPageSize();
+        if (keyword == null || keyword.isEmpty()) {
+            return new SearchResult(List.of(), 0, currentPage, pageSize);
+        }
+        if (!DiaryQuery.isFullTextSearchable(keyword)) {
+            return searchByLike(query, currentPage);
+        }
+
+        List<Object> filterParams = new ArrayList<>();
+        String filterClause = query.toFilterClause(filterParams);
+        String filterSQL = filterClause.isEmpty() ? "" : "AND d.id IN (SELECT id FROM diary" + filterClause + ")";
+
+        String searchSQL = """
+            SELECT d.id, d.content, d.emotion_summary, d.created_at,
+                   snippet(diary_fts, 0, '<mark>', '</mark>', '...', 32) AS snippet,
+                   bm25(diary_fts) AS score
+            FROM diary_fts
+            JOIN diary d ON d.id = diary_fts.rowid
+            WHERE diary_fts MATCH ? %s
+            ORDER BY score, d.id DESC
+            LIMIT ? OFFSET ?
+            """.formatted(filterSQL);
+        String countSQL = """
+            SELECT COUNT(*)
+            FROM diary_fts
+            JOIN diary d ON d.id = diary_fts.rowid
+            WHERE diary_fts MATCH ? %s
+            """.formatted(filterSQL);
+
+        List<Object> params = new ArrayList<>();
+        params.add(DiaryQuery.toMatchExpression(keyword));
+        params.addAll(filterParams);
+
+        List<SearchResult.Hit> hits = new ArrayList<>(pageSize);
+        int totalCount = 0;
+
+        try (Connection conn = databaseUtil.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(searchSQL)) {
+                bindParameters(pstmt, params);
+                pstmt.setInt(params.size() + 1, pageSize);
+                pstmt.setInt(params.size() + 2, (currentPage - 1) * pageSize);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        hits.add(new SearchResult.Hit(mapDiary(rs), rs.getString("snippet"), rs.getDouble("score")));
+                    }
+                }
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(countSQL)) {
+                bindParameters(pstmt, params);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    totalCount = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+
+            logger.info("Full-text search '{}' returned {} of {} hits", keyword, hits.size(), totalCount);
+        } catch (SQLException e) {
+            logger.error("Failed to search diaries: {}", query, e);
+        }
+
+        return new SearchResult(hits, totalCount, currentPage, pageSize);
+    }
+
+    /**
+     * 짧은 검색어용 LIKE 검색 (최신순, 발췌문은 첫 일치 위치 주변)
+     */
+    private SearchResult searchByLike(DiaryQuery query, int page) {
+        int pageSize = query.getPageSize();
+        List<Object> params = new ArrayList<>();
+        String filterClause = query.toFilterClause(params);
+        String searchSQL = "SELECT id, content, emotion_summary, created_at FROM diary"
+            + (filterClause.isEmpty() ? " WHERE " : filterClause + " AND ")
+            + "(content LIKE ? ESCAPE '\\' OR emotion_summary LIKE ? ESCAPE '\\')"
+            + " ORDER BY created_at DESC, id DESC LIMIT ? OFFSET ?";
+        String pattern = "%" + DiaryQuery.escapeLike(query.getKeyword()) + "%";
+        params.add(pattern);
+        params.add(pattern);
+        params.add(pageSize);
+        params.add((page - 1) * pageSize);
+
+        List<SearchResult.Hit> hits = new ArrayList<>(pageSize);
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(searchSQL)) {
+
+            bindParameters(pstmt, params);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Diary diary = mapDiary(rs);
+                    hits.add(new SearchResult.Hit(diary, buildSnippet(diary.getContent(), query.getKeyword()), 0.0));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to search diaries: {}", query, e);
+        }
+
+        return new SearchResult(hits, countDiaries(query), page, pageSize);
+    }
+
+    /**
+     * 첫 일치 위치 주변 32자 발췌 및 하이라이트
+     */
+    private String buildSnippet(String content, String keyword) {
+        int index = content.toLowerCase().indexOf(keyword.toLowerCase());
+        if (index < 0) {
+            return content.length() > 64 ? content.substring(0, 64) + "..." : content;
+        }
+        int start = Math.max(0, index - 16);
+        int end = Math.min(content.length(), index + keyword.length() + 16);
+        return (start > 0 ? "..." : "")
+            + content.substring(start, index)
+            + "<mark>" + content.substring(index, index + keyword.length()) + "</mark>"
+            + content.substring(index + keyword.length(), end)
+            + (end < content.length() ? "..." : "");
+    }
+
     /**
      * 감정별 일기 필터링 조회
      */
     public List<Diary> getDiariesByEmotion(String emotion) {
         String selectSQL = """
-            SELECT content, emotion_summary, created_at
+            SELECT id, content, emotion_summary, created_at
             FROM diary
             WHERE emotion_summary LIKE ?
             ORDER BY created_at DESC
@@ -121,19 +482,14 @@ public class DiaryDAO {
         
         List<Diary> diaries = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = databaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
             
             pstmt.setString(1, "%" + emotion + "%");
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Diary diary = new Diary(
-                        rs.getString("content"),
-                        rs.getString("emotion_summary"),
-                        rs.getString("created_at")
-                    );
-                    diaries.add(diary);
+                    diaries.add(mapDiary(rs));
                 }
             }
             
@@ -160,7 +516,7 @@ public class DiaryDAO {
         
         Map<String, Integer> stats = new HashMap<>();
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = databaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(statsSQL)) {
             
@@ -181,16 +537,10 @@ public class DiaryDAO {
      * 최근 N일간의 일기 개수 조회
      */
     public int getDiaryCountForLastDays(int days) {
-        String countSQL = """
-            SELECT COUNT(*) as count
-            FROM diary
-            WHERE datetime(created_at) >= datetime('now', '-' || ? || ' days')
-            """;
-        
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(countSQL)) {
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(COUNT_SINCE_SQL)) {
             
-            pstmt.setInt(1, days);
+            pstmt.setLong(1, System.currentTimeMillis() - days * 86_400_000L);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -210,28 +560,24 @@ public class DiaryDAO {
      * 특정 날짜의 일기 조회
      */
     public List<Diary> getDiariesByDate(String date) {
-        String selectSQL = """
-            SELECT content, emotion_summary, created_at
-            FROM diary
-            WHERE DATE(created_at) = ?
-            ORDER BY created_at DESC
-            """;
-        
         List<Diary> diaries = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+        long epochDay;
+        try {
+            epochDay = LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            logger.warn("Invalid date format: {}", date);
+            return diaries;
+        }
+        
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_DAY_SQL)) {
             
-            pstmt.setString(1, date);
+            pstmt.setLong(1, epochDay);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    Diary diary = new Diary(
-                        rs.getString("content"),
-                        rs.getString("emotion_summary"),
-                        rs.getString("created_at")
-                    );
-                    diaries.add(diary);
+                    diaries.add(mapDiary(rs));
                 }
             }
             
@@ -244,11 +590,39 @@ public class DiaryDAO {
         return diaries;
     }
 
+    /**
+     * 일기의 감정 분석 결과 조회 (분석 결과가 없으면 null)
+     */
+    public EmotionAnalysis getEmotionAnalysis(long diaryId) {
+        String selectSQL = "SELECT emotion, confidence, intensity, scores FROM emotion_analyses WHERE diary_id = ?";
+        
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+            
+            pstmt.setLong(1, diaryId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new EmotionAnalysis(
+                        rs.getString("emotion"),
+                        rs.getDouble("confidence"),
+                        rs.getDouble("intensity"),
+                        EmotionAnalysis.scoresFromBlob(rs.getBytes("scores"))
+                    );
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to get emotion analysis for diary: {}", diaryId, e);
+        }
+        
+        return null;
+    }
+
     /**
      * 데이터베이스 연결 테스트
      */
     public boolean testConnection() {
-        try (Connection conn = DriverManager.getConnection(DB_URL)) {
+        try (Connection conn = databaseUtil.getConnection()) {
             logger.info("Database connection test successful");
             return true;
         } catch (SQLException e) {
@@ -263,7 +637,7 @@ public class DiaryDAO {
     public int getTotalDiaryCount() {
         String countSQL = "SELECT COUNT(*) as count FROM diary";
         
-        try (Connection conn = DriverManager.getConnection(DB_URL);
+        try (Connection conn = databaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(countSQL)) {
             
@@ -279,4 +653,45 @@ public class DiaryDAO {
         
         return 0;
     }
+
+    /**
+     * ResultSet 현재 행을 Diary 로 변환
+     */
+    private Diary mapDiary(ResultSet rs) throws SQLException {
+        return new Diary(
+            rs.getLong("id"),
+            rs.getString("content"),
+            rs.getString("emotion_summary"),
+            rs.getString("created_at")
+        );
+    }
+
+    /**
+     * ResultSet 현재 행을 DiaryMeta 로 변환 (created_day 가 없는 행은 0)
+     */
+    private DiaryMeta mapMetadata(ResultSet rs) throws SQLException {
+        return new DiaryMeta(
+            rs.getLong("id"),
+            rs.getLong("created_day"),
+            Emotion.fromLabel(rs.getString("emotion_summary")).getCode(),
+            rs.getInt("content_length")
+        );
+    }
+
+    private void closeQuietly(ResultSet rs, Statement stmt, Connection conn) {
+        try (conn; stmt; rs) {
+            // try-with-resources 가 역순으로 닫음
+        } catch (SQLException e) {
+            logger.warn("Failed to close metadata stream", e);
+        }
+    }
+
+    /**
+     * 파라미터를 순서대로 바인딩
+     */
+    private void bindParameters(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
 }
\ No newline at end of file
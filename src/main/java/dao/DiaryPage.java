@@ -0,0 +1,52 @@
+package dao;
+
+import model.Diary;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 조회 결과
+ */
+public class DiaryPage {
+    private final List<Diary> diaries;
+    private final int totalCount;
+    private final boolean hasPrevious;
+    private final boolean hasNext;
+
+    public DiaryPage(List<Diary> diaries, int totalCount, boolean hasPrevious, boolean hasNext) {
+        this.diaries = diaries;
+        this.totalCount = totalCount;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    public List<Diary> getDiaries() {
+        return diaries;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    /**
+     * 이전 페이지 조회용 커서 (첫 항목 위치)
+     */
+    public String getPreviousCursor() {
+        return hasPrevious && !diaries.isEmpty() ? DiaryCursor.of(diaries.get(0)).toString() : null;
+    }
+
+    /**
+     * 다음 페이지 조회용 커서 (마지막 항목 위치)
+     */
+    public String getNextCursor() {
+        return hasNext && !diaries.isEmpty() ? DiaryCursor.of(diaries.get(diaries.size() - 1)).toString() : null;
+    }
+}
\ No newline at end of file
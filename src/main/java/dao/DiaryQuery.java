@@ -0,0 +1,210 @@
+package dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 일기 목록 조회 조건
+ *
+ * 날짜, 기간, 감정, 키워드, 정렬, 커서 조건을 조합하여
+ * 하나의 파라미터 바인딩 SQL 로 변환합니다.
+ */
+public class DiaryQuery {
+    public static final String SORT_DATE_DESC = "date_desc";
+    public static final String SORT_DATE_ASC = "date_asc";
+
+    // trigram 토크나이저는 3글자 미만 검색어를 색인으로 찾을 수 없음
+    static final int FTS_MIN_KEYWORD_LENGTH = 3;
+
+    private LocalDate fromDate;     // 포함
+    private LocalDate toDate;       // 포함
+    private String emotion;
+    private String keyword;
+    private String sortBy = SORT_DATE_DESC;
+    private DiaryCursor afterCursor;
+    private DiaryCursor beforeCursor;
+    private int pageSize = 10;
+
+    /**
+     * 특정 날짜 하루
+     */
+    public DiaryQuery onDate(LocalDate date) {
+        this.fromDate = date;
+        this.toDate = date;
+        return this;
+    }
+
+    /**
+     * 기간 (양 끝 포함, null 이면 제한 없음)
+     */
+    public DiaryQuery between(LocalDate from, LocalDate to) {
+        this.fromDate = from;
+        this.toDate = to;
+        return this;
+    }
+
+    public DiaryQuery withEmotion(String emotion) {
+        this.emotion = emotion;
+        return this;
+    }
+
+    public DiaryQuery containing(String keyword) {
+        this.keyword = keyword != null ? keyword.trim() : null;
+        return this;
+    }
+
+    public DiaryQuery sortBy(String sortBy) {
+        this.sortBy = SORT_DATE_ASC.equals(sortBy) ? SORT_DATE_ASC : SORT_DATE_DESC;
+        return this;
+    }
+
+    /**
+     * 다음 페이지 (현재 페이지 마지막 항목 커서)
+     */
+    public DiaryQuery after(String cursor) {
+        this.afterCursor = DiaryCursor.parse(cursor);
+        if (afterCursor != null) {
+            this.beforeCursor = null;
+        }
+        return this;
+    }
+
+    /**
+     * 이전 페이지 (현재 페이지 첫 항목 커서)
+     */
+    public DiaryQuery before(String cursor) {
+        if (afterCursor == null) {
+            this.beforeCursor = DiaryCursor.parse(cursor);
+        }
+        return this;
+    }
+
+    public DiaryQuery limit(int pageSize) {
+        this.pageSize = Math.max(1, pageSize);
+        return this;
+    }
+
+    public boolean isAscending() {
+        return SORT_DATE_ASC.equals(sortBy);
+    }
+
+    public boolean isBackward() {
+        return beforeCursor != null;
+    }
+
+    public boolean hasCursor() {
+        return afterCursor != null || beforeCursor != null;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * 필터 조건만 적용한 개수 조회 SQL
+     */
+    String toCountSql(List<Object> params) {
+        return "SELECT COUNT(*) FROM diary" + whereClause(params, false, true);
+    }
+
+    /**
+     * 키워드를 제외한 필터 조건의 WHERE 절 (전문 검색과 결합할 때 사용, 조건이 없으면 빈 문자열)
+     */
+    String toFilterClause(List<Object> params) {
+        return whereClause(params, false, false);
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * 필터 + 커서 + 정렬 + LIMIT 을 적용한 조회 SQL (다음 페이지 확인용으로 pageSize + 1 행 조회)
+     *
+     * 이전 페이지는 반대 방향으로 스캔하므로 호출자가 결과를 뒤집어야 합니다.
+     */
+    String toSelectSql(List<Object> params) {
+        boolean scanAscending = isAscending() != isBackward();
+        String direction = scanAscending ? "ASC" : "DESC";
+
+        StringBuilder sql = new StringBuilder("SELECT id, content, emotion_summary, created_at FROM diary");
+        sql.append(whereClause(params, true, true));
+        sql.append(" ORDER BY created_at ").append(direction).append(", id ").append(direction);
+        sql.append(" LIMIT ?");
+        params.add(pageSize + 1);
+        return sql.toString();
+    }
+
+    /**
+     * 필터 조건을 적용한 메타데이터 조회 SQL (id 순, 커서/LIMIT 없음)
+     *
+     * octet_length 는 본문을 읽지 않고 레코드 헤더의 크기만으로 계산되므로 TEXT 값을 로드하지 않습니다.
+     */
+    String toMetadataSql(List<Object> params) {
+        return "SELECT id, created_day, emotion_summary, octet_length(content) AS content_length FROM diary"
+            + whereClause(params, false, true) + " ORDER BY id";
+    }
+
+    private String whereClause(List<Object> params, boolean includeCursor, boolean includeKeyword) {
+        List<String> conditions = new ArrayList<>();
+
+        // created_at 은 "yyyy-MM-dd HH:mm:ss" 문자열이므로 날짜 경계로 범위 비교
+        if (fromDate != null) {
+            conditions.add("created_at >= ?");
+            params.add(fromDate.toString());
+        }
+        if (toDate != null) {
+            conditions.add("created_at < ?");
+            params.add(toDate.plusDays(1).toString());
+        }
+        if (emotion != null && !emotion.isEmpty()) {
+            conditions.add("emotion_summary LIKE ? ESCAPE '\\'");
+            params.add("%" + escapeLike(emotion) + "%");
+        }
+        if (includeKeyword && keyword != null && !keyword.isEmpty()) {
+            if (isFullTextSearchable(keyword)) {
+                conditions.add("id IN (SELECT rowid FROM diary_fts WHERE diary_fts MATCH ?)");
+                params.add(toMatchExpression(keyword));
+            } else {
+                conditions.add("(content LIKE ? ESCAPE '\\' OR emotion_summary LIKE ? ESCAPE '\\')");
+                String pattern = "%" + escapeLike(keyword) + "%";
+                params.add(pattern);
+                params.add(pattern);
+            }
+        }
+        if (includeCursor && hasCursor()) {
+            DiaryCursor cursor = isBackward() ? beforeCursor : afterCursor;
+            boolean scanAscending = isAscending() != isBackward();
+            conditions.add("(created_at, id) " + (scanAscending ? ">" : "<") + " (?, ?)");
+            params.add(cursor.getCreatedAt());
+            params.add(cursor.getId());
+        }
+
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * FTS 색인으로 검색 가능한 검색어인지 (trigram 은 3글자 이상)
+     */
+    static boolean isFullTextSearchable(String keyword) {
+        return keyword.codePointCount(0, keyword.length()) >= FTS_MIN_KEYWORD_LENGTH;
+    }
+
+    /**
+     * 검색어를 FTS5 구문(phrase) 으로 변환 - 연산자 해석 없이 부분 문자열로 검색
+     */
+    static String toMatchExpression(String keyword) {
+        return "\"" + keyword.replace("\"", "\"\"") + "\"";
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DiaryQuery{from=%s, to=%s, emotion=%s, keyword=%s, sortBy=%s, after=%s, before=%s, pageSize=%d}",
+                             fromDate, toDate, emotion, keyword, sortBy, afterCursor, beforeCursor, pageSize);
+    }
+}
@@ -0,0 +1,429 @@
+package dao;
+
+import api.MindAnalyzer;
+import model.EmotionAnalysis;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.ConnectionPool;
+import util.DatabaseUtil;
+import util.GroupCommitWriter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 전체 일기 감정 재분석 작업 (키워드 사전이나 가중치가 바뀐 뒤 기존 결과를 다시 계산)
+ *
+ * diary 를 id 순서로 chunkSize 개씩 읽어 MindAnalyzer.analyzeBatch 로 모든 코어에서 분석하고, 한 구간의
+ * 결과를 writer 트랜잭션 하나로 저장합니다. 구간을 저장하는 동안 다음 구간을 읽고 분석하며,
+ * 마지막으로 저장한 id 를 같은 트랜잭션에서 user_settings 에 기록하므로 중단되면 그 다음 id 부터 이어서 실행합니다.
+ *
+ * - emotion_analyses 는 항상 새 결과로 덮어씀 (분석 결과가 없던 일기는 새로 채움)
+ * - emotion_summary 는 이전 분석 결과와 같았던 일기만 바꿈 - 사용자가 직접 고른 감정은 유지
+ *   (읽은 값과 같을 때만 쓰므로 분석 중에 사용자가 고친 감정도 유지)
+ * - 분석 결과가 없던 일기(V7 이전에 작성된 일기 등)는 감정을 사용자가 골랐을 수 있으므로 emotion_summary 를
+ *   그대로 두고, replaceUnanalyzedSummaries 를 켠 경우에만 분석 결과로 바꿈
+ * - 키워드 스케치는 단어를 뺄 수 없으므로 분석 결과가 없던 일기의 단어만 더함
+ */
+public class ReanalysisJob {
+    private static final Logger logger = LoggerFactory.getLogger(ReanalysisJob.class);
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    // 이어서 실행할 위치 (마지막으로 저장한 일기 id, 0 이면 처음부터)
+    public static final String CURSOR_SETTING = "reanalysis_cursor";
+
+    // 재분석 대상 범위 (시작 시점의 마지막 id 까지 - 이후 새 일기는 이미 현재 분석기로 저장됨)
+    public static final String RANGE_SQL = "SELECT COUNT(*), MAX(id) FROM diary WHERE id > ?";
+    // id 순서 구간 조회 (rowid 범위 탐색 + 기존 분석 결과)
+    public static final String SELECT_CHUNK_SQL = """
+        SELECT d.id, d.content, d.emotion_summary, d.created_day, a.emotion AS analyzed_emotion
+        FROM diary d
+        LEFT JOIN emotion_analyses a ON a.diary_id = d.id
+        WHERE d.id > ? AND d.id <= ?
+        ORDER BY d.id
+        LIMIT ?
+        """;
+    // 읽은 값 그대로일 때만 바꿈 (읽은 뒤 사용자가 고친 감정은 덮어쓰지 않음)
+    private static final String UPDATE_SUMMARY_SQL =
+        "UPDATE diary SET emotion_summary = ? WHERE id = ? AND emotion_summary IS ?";
+    // 읽은 뒤 삭제된 일기에는 분석 결과를 남기지 않음
+    private static final String UPSERT_ANALYSIS_SQL = """
+        INSERT INTO emotion_analyses (diary_id, day, emotion, confidence, intensity, scores)
+        SELECT ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM diary WHERE id = ?)
+        ON CONFLICT (diary_id) DO UPDATE SET
+            emotion = excluded.emotion, confidence = excluded.confidence,
+            intensity = excluded.intensity, scores = excluded.scores
+        """;
+    private static final String SAVE_CURSOR_SQL = """
+        INSERT INTO user_settings (setting_key, setting_value, created_at, updated_at) VALUES (?, ?, ?, ?)
+        ON CONFLICT (setting_key) DO UPDATE SET setting_value = excluded.setting_value, updated_at = excluded.updated_at
+        """;
+
+    // 읽기 전용 커넥션 풀
+    private final ConnectionPool connectionPool;
+    // 쓰기 파이프라인
+    private final GroupCommitWriter writer;
+    private final MindAnalyzer analyzer;
+    private final int chunkSize;
+
+    private volatile ReanalysisProgress current;
+    // run() 이 this 를 잠근 채 실행되므로 백그라운드 스레드 관리는 별도 잠금으로
+    private final Object workerLock = new Object();
+    private Thread worker;
+
+    public ReanalysisJob(MindAnalyzer analyzer) {
+        this(analyzer, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ReanalysisJob(MindAnalyzer analyzer, int chunkSize) {
+        this(DatabaseUtil.getInstance().getConnectionPool(), DatabaseUtil.getInstance().getWriter(), analyzer, chunkSize);
+    }
+
+    public ReanalysisJob(ConnectionPool connectionPool, GroupCommitWriter writer, MindAnalyzer analyzer, int chunkSize) {
+        this.connectionPool = connectionPool;
+        this.writer = writer;
+        this.analyzer = analyzer;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 백그라운드 스레드에서 재분석 시작
+     *
+     * @param fromStart true 면 저장된 위치를 무시하고 처음부터, false 면 중단된 위치부터 이어서
+     * @param replaceUnanalyzedSummaries true 면 분석 결과가 없던 일기의 emotion_summary 도 분석기가 정한 값으로 보고 바꿈
+     * @return 이미 실행 중이면 false
+     */
+    public boolean start(boolean fromStart, boolean replaceUnanalyzedSummaries) {
+        synchronized (workerLock) {
+            if (worker != null && worker.isAlive()) {
+                return false;
+            }
+            worker = new Thread(() -> {
+                try {
+                    run(fromStart, replaceUnanalyzedSummaries);
+                } catch (SQLException e) {
+                    logger.error("Reanalysis failed: {}", current, e);
+                }
+            }, "diary-reanalysis");
+            worker.setDaemon(true);
+            worker.start();
+            return true;
+        }
+    }
+
+    /**
+     * 실행 중인 재분석 중단 (저장 중인 구간까지 커밋되고, 다음 실행은 그 다음 id 부터)
+     */
+    public void stop() {
+        synchronized (workerLock) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    /**
+     * 현재 스레드에서 재분석 실행 (동시에 한 번만 실행, 매개변수는 start 와 같음)
+     *
+     * @return 진행 결과
+     */
+    public synchronized ReanalysisProgress run(boolean fromStart, boolean replaceUnanalyzedSummaries)
+            throws SQLException {
+        ReanalysisProgress progress = new ReanalysisProgress();
+        progress.startedAt = System.currentTimeMillis();
+        progress.startId = fromStart ? 0 : loadCursor();
+        progress.cursor = progress.startId;
+        current = progress;
+
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RANGE_SQL)) {
+            pstmt.setLong(1, progress.startId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    progress.totalRows = rs.getLong(1);
+                    progress.targetId = rs.getObject(2) != null ? rs.getLong(2) : progress.startId;
+                }
+            }
+        }
+
+        logger.info("Reanalysis started: {} diaries in id range ({}, {}]",
+                    progress.totalRows, progress.startId, progress.targetId);
+
+        long lastLogged = progress.startedAt;
+        CompletableFuture<ChunkResult> pending = null;
+        try {
+            long readCursor = progress.cursor;
+            while (readCursor < progress.targetId) {
+                if (Thread.currentThread().isInterrupted()) {
+                    logger.info("Reanalysis interrupted: {}", progress);
+                    break;
+                }
+
+                List<DiaryRow> rows = readChunk(readCursor, progress.targetId);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<String> contents = new ArrayList<>(rows.size());
+                for (DiaryRow row : rows) {
+                    contents.add(row.content);
+                }
+                List<EmotionAnalysis> analyses = analyzer.analyzeBatch(contents);
+                readCursor = rows.get(rows.size() - 1).id;
+
+                // 이전 구간 저장이 끝난 뒤에 다음 구간을 넘겨 writer 큐에는 한 구간만 대기
+                if (pending != null) {
+                    applyResult(progress, await(pending));
+                }
+                long chunkEnd = readCursor;
+                pending = writer.submit(conn -> writeChunk(conn, rows, analyses, chunkEnd, replaceUnanalyzedSummaries));
+
+                long now = System.currentTimeMillis();
+                if (now - lastLogged >= 5000) {
+                    logger.info("Reanalysis progress: {}", progress);
+                    lastLogged = now;
+                }
+            }
+            if (pending != null) {
+                applyResult(progress, await(pending));
+            }
+        } finally {
+            progress.finishedAt = System.currentTimeMillis();
+        }
+
+        logger.info("Reanalysis finished: {}", progress);
+        return progress;
+    }
+
+    private List<DiaryRow> readChunk(long afterId, long targetId) throws SQLException {
+        List<DiaryRow> rows = new ArrayList<>(chunkSize);
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SELECT_CHUNK_SQL)) {
+            pstmt.setLong(1, afterId);
+            pstmt.setLong(2, targetId);
+            pstmt.setInt(3, chunkSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    DiaryRow row = new DiaryRow();
+                    row.id = rs.getLong("id");
+                    row.content = rs.getString("content");
+                    row.emotionSummary = rs.getString("emotion_summary");
+                    long day = rs.getLong("created_day");
+                    row.createdDay = rs.wasNull() ? null : day;
+                    row.analyzedEmotion = rs.getString("analyzed_emotion");
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 한 구간의 분석 결과와 재시작 위치를 한 트랜잭션으로 저장 (writer 스레드에서 실행)
+     */
+    private ChunkResult writeChunk(Connection conn, List<DiaryRow> rows, List<EmotionAnalysis> analyses,
+                                   long chunkEnd, boolean replaceUnanalyzedSummaries) throws SQLException {
+        ChunkResult result = new ChunkResult();
+        result.chunkEnd = chunkEnd;
+        result.rows = rows.size();
+        Map<Integer, List<String>> monthTokens = new TreeMap<>();
+
+        try (PreparedStatement summaryStmt = conn.prepareStatement(UPDATE_SUMMARY_SQL);
+             PreparedStatement analysisStmt = conn.prepareStatement(UPSERT_ANALYSIS_SQL)) {
+            for (int i = 0; i < rows.size(); i++) {
+                DiaryRow row = rows.get(i);
+                EmotionAnalysis analysis = analyses.get(i);
+                if (analysis == null) {
+                    result.failed++;
+                    continue;
+                }
+
+                // 이전 분석 결과가 없으면 감정을 누가 정했는지 알 수 없으므로 명시적으로 요청한 경우에만 바꿈
+                boolean analyzerSummary = row.analyzedEmotion != null
+                                          ? row.analyzedEmotion.equals(row.emotionSummary)
+                                          : replaceUnanalyzedSummaries;
+                if (analyzerSummary && !analysis.getEmotion().equals(row.emotionSummary)) {
+                    summaryStmt.setString(1, analysis.getEmotion());
+                    summaryStmt.setLong(2, row.id);
+                    summaryStmt.setString(3, row.emotionSummary);
+                    summaryStmt.addBatch();
+                }
+
+                if (row.createdDay == null) {
+                    continue;
+                }
+                analysisStmt.setLong(1, row.id);
+                analysisStmt.setLong(2, row.createdDay);
+                analysisStmt.setString(3, analysis.getEmotion());
+                analysisStmt.setDouble(4, analysis.getConfidence());
+                analysisStmt.setDouble(5, analysis.getIntensity());
+                analysisStmt.setBytes(6, analysis.toScoreBlob());
+                analysisStmt.setLong(7, row.id);
+                analysisStmt.addBatch();
+
+                if (row.analyzedEmotion == null) {
+                    result.backfilledAnalyses++;
+                    if (analysis.getTokens().length > 0) {
+                        LocalDate day = LocalDate.ofEpochDay(row.createdDay);
+                        List<String> tokens = monthTokens.computeIfAbsent(
+                            day.getYear() * 100 + day.getMonthValue(), month -> new ArrayList<>());
+                        tokens.addAll(List.of(analysis.getTokens()));
+                    }
+                }
+            }
+            for (int updated : summaryStmt.executeBatch()) {
+                result.changedSummaries += Math.max(0, updated);
+            }
+            analysisStmt.executeBatch();
+        }
+
+        for (Map.Entry<Integer, List<String>> entry : monthTokens.entrySet()) {
+            DiaryDAO.updateKeywordSketch(conn, entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+
+        String now = LocalDateTime.now().format(formatter);
+        try (PreparedStatement pstmt = conn.prepareStatement(SAVE_CURSOR_SQL)) {
+            pstmt.setString(1, CURSOR_SETTING);
+            pstmt.setString(2, Long.toString(chunkEnd));
+            pstmt.setString(3, now);
+            pstmt.setString(4, now);
+            pstmt.executeUpdate();
+        }
+        return result;
+    }
+
+    private ChunkResult await(CompletableFuture<ChunkResult> pending) throws SQLException {
+        // 제출한 구간은 writer 가 마저 커밋하므로 중단 요청이 와도 결과는 기다림
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return pending.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof SQLException sqlException
+                ? sqlException : new SQLException("Failed to write reanalysis chunk", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void applyResult(ReanalysisProgress progress, ChunkResult result) {
+        progress.cursor = result.chunkEnd;
+        progress.analyzedRows += result.rows - result.failed;
+        progress.failedRows += result.failed;
+        progress.changedSummaries += result.changedSummaries;
+        progress.backfilledAnalyses += result.backfilledAnalyses;
+        progress.chunks++;
+    }
+
+    private long loadCursor() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT setting_value FROM user_settings WHERE setting_key = ?")) {
+            pstmt.setString(1, CURSOR_SETTING);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getString(1) != null ? parseCursor(rs.getString(1)) : 0;
+            }
+        }
+    }
+
+    private static long parseCursor(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid reanalysis cursor: {}", value);
+            return 0;
+        }
+    }
+
+    /**
+     * 현재(또는 마지막) 재분석 진행 상황 - 실행된 적이 없으면 null
+     */
+    public ReanalysisProgress getProgress() {
+        return current;
+    }
+
+    public boolean isRunning() {
+        ReanalysisProgress progress = current;
+        return progress != null && progress.finishedAt == 0;
+    }
+
+    private static final class DiaryRow {
+        long id;
+        String content;
+        String emotionSummary;
+        Long createdDay;
+        String analyzedEmotion;
+    }
+
+    private static final class ChunkResult {
+        long chunkEnd;
+        int rows;
+        int failed;
+        int changedSummaries;
+        int backfilledAnalyses;
+    }
+
+    /**
+     * 재분석 진행 상황 클래스
+     */
+    public static class ReanalysisProgress {
+        public long startId;
+        public long cursor;
+        public long targetId;
+        public long totalRows;
+        public long analyzedRows;
+        public long failedRows;
+        public long changedSummaries;
+        public long backfilledAnalyses;
+        public long chunks;
+        public long startedAt;
+        public volatile long finishedAt;
+
+        public int getProgressPercent() {
+            return totalRows > 0 ? (int) Math.min(100, (analyzedRows + failedRows) * 100 / totalRows) : 100;
+        }
+
+        public double getRowsPerSecond() {
+            long elapsed = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+            return elapsed > 0 ? (analyzedRows + failedRows) * 1000.0 / elapsed : 0.0;
+        }
+
+        /**
+         * 남은 예상 시간 (초, 처리 속도를 아직 모르면 -1)
+         */
+        public long getEtaSeconds() {
+            long remaining = Math.max(0, totalRows - analyzedRows - failedRows);
+            if (remaining == 0 || finishedAt > 0) {
+                return 0;
+            }
+            double rate = getRowsPerSecond();
+            return rate > 0 ? (long) Math.ceil(remaining / rate) : -1;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ReanalysisProgress{cursor=%d/%d (%d%%), analyzed=%d/%d, failed=%d, "
+                                 + "changedSummaries=%d, backfilled=%d, chunks=%d, rate=%.1f rows/s, eta=%ds}",
+                                 cursor, targetId, getProgressPercent(), analyzedRows, totalRows, failedRows,
+                                 changedSummaries, backfilledAnalyses, chunks, getRowsPerSecond(), getEtaSeconds());
+        }
+    }
+}
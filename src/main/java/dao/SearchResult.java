@@ -0,0 +1,69 @@
+package dao;
+
+import model.Diary;
+
+import java.util.List;
+
+/**
+ * 전문 검색 결과 (관련도순 페이지)
+ */
+public class SearchResult {
+    private final List<Hit> hits;
+    private final int totalCount;
+    private final int page;
+    private final int pageSize;
+
+    public SearchResult(List<Hit> hits, int totalCount, int page, int pageSize) {
+        this.hits = hits;
+        this.totalCount = totalCount;
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public boolean hasPrevious() {
+        return page > 1;
+    }
+
+    public boolean hasNext() {
+        return (long) page * pageSize < totalCount;
+    }
+
+    /**
+     * 검색 결과 한 건 - 일기, 하이라이트된 발췌문, 관련도 점수(bm25, 낮을수록 관련도 높음)
+     */
+    public static class Hit {
+        private final Diary diary;
+        private final String snippet;
+        private final double score;
+
+        public Hit(Diary diary, String snippet, double score) {
+            this.diary = diary;
+            this.snippet = snippet;
+            this.score = score;
+        }
+
+        public Diary getDiary() {
+            return diary;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
\ No newline at end of file
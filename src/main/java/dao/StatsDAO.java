@@ -0,0 +1,611 @@
+package dao;
+
+import model.Emotion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.DatabaseUtil;
+import util.KeywordSketch;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 날짜별 감정 집계(daily_emotion_counts)와 감정 강도/신뢰도(emotion_analyses) 조회
+ *
+ * 집계 테이블은 diary 트리거가 같은 트랜잭션에서 갱신하므로 조회 비용은 조회 기간의 일수에 비례합니다.
+ * 강도/신뢰도 평균은 (day, intensity, confidence) 인덱스 범위만 읽어 SQL 에서 집계합니다.
+ * 날짜 범위는 양 끝을 포함하며 null 이면 제한하지 않습니다.
+ * 조회 오류는 SQLException 으로 그대로 던집니다. (빈 결과로 바꾸면 호출자가 0 을 정상 값으로 캐시함)
+ */
+public class StatsDAO {
+    private static final Logger logger = LoggerFactory.getLogger(StatsDAO.class);
+
+    // 집계 테이블이 생성된 스키마 버전
+    private static final int ROLLUP_SCHEMA_VERSION = 6;
+    // 월별 집계에서 한 작업이 한 번의 조회로 처리하는 최대 개월 수 (더 긴 기간은 나누어 병렬 처리)
+    private static final int MONTHS_PER_PARTITION = 12;
+
+    public static final String EMOTION_COUNTS_SQL = """
+        SELECT emotion, SUM(count) AS count
+        FROM daily_emotion_counts
+        WHERE day >= ? AND day <= ?
+        GROUP BY emotion
+        """;
+    public static final String DAILY_COUNTS_SQL = """
+        SELECT day, SUM(count) AS count
+        FROM daily_emotion_counts
+        WHERE day >= ? AND day <= ?
+        GROUP BY day
+        ORDER BY day
+        """;
+    public static final String TOTAL_COUNT_SQL = """
+        SELECT COALESCE(SUM(count), 0) AS count
+        FROM daily_emotion_counts
+        WHERE day >= ? AND day <= ?
+        """;
+    public static final String DAILY_EMOTION_COUNTS_SQL = """
+        SELECT day, emotion, count
+        FROM daily_emotion_counts
+        WHERE day >= ? AND day <= ?
+        ORDER BY day
+        """;
+    public static final String DAILY_INTENSITY_SQL = """
+        SELECT day, COUNT(*) AS count, SUM(intensity) AS intensity_sum, SUM(confidence) AS confidence_sum
+        FROM emotion_analyses
+        WHERE day >= ? AND day <= ?
+        GROUP BY day
+        ORDER BY day
+        """;
+    public static final String KEYWORD_SKETCH_SQL = "SELECT sketch FROM keyword_sketches WHERE month = ?";
+
+    private final DatabaseUtil databaseUtil;
+
+    public StatsDAO() {
+        this.databaseUtil = DatabaseUtil.getInstance();
+    }
+
+    /**
+     * 기간 내 감정별 일기 수 (감정이 없는 일기는 키 "")
+     */
+    public Map<String, Integer> getEmotionCounts(LocalDate from, LocalDate to) throws SQLException {
+        Map<String, Integer> counts = new HashMap<>();
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(EMOTION_COUNTS_SQL)) {
+
+            bindDayRange(pstmt, from, to);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getString("emotion"), rs.getInt("count"));
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * 기간 내 날짜별 일기 수 (일기가 없는 날은 포함하지 않음)
+     */
+    public SortedMap<LocalDate, Integer> getDailyCounts(LocalDate from, LocalDate to) throws SQLException {
+        SortedMap<LocalDate, Integer> counts = new TreeMap<>();
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DAILY_COUNTS_SQL)) {
+
+            bindDayRange(pstmt, from, to);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(LocalDate.ofEpochDay(rs.getLong("day")), rs.getInt("count"));
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * 기간 내 전체 일기 수
+     */
+    public int getTotalCount(LocalDate from, LocalDate to) throws SQLException {
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TOTAL_COUNT_SQL)) {
+
+            bindDayRange(pstmt, from, to);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt("count") : 0;
+            }
+        }
+    }
+
+    /**
+     * 기간 내 감정별 작성 추이 - 구간 수가 maxPoints 이하가 되는 가장 작은 단위(일/주/월/연)로 묶음
+     * 첫/마지막 구간은 기간 경계에서 잘릴 수 있으며 일기가 없는 구간도 0 으로 포함됩니다.
+     */
+    public Timeline getTimeline(LocalDate from, LocalDate to, int maxPoints) throws SQLException {
+        Granularity granularity = Granularity.choose(from, to, maxPoints);
+        Timeline timeline = new Timeline(granularity, granularity.bucketStarts(from, to));
+        int bucket = 0;
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DAILY_EMOTION_COUNTS_SQL)) {
+
+            bindDayRange(pstmt, from, to);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate day = LocalDate.ofEpochDay(rs.getLong("day"));
+                    // 날짜순으로 읽으므로 구간 커서는 앞으로만 이동
+                    while (bucket + 1 < timeline.bucketStarts.size()
+                           && !day.isBefore(timeline.bucketStarts.get(bucket + 1))) {
+                        bucket++;
+                    }
+                    timeline.add(bucket, rs.getString("emotion"), rs.getInt("count"));
+                }
+            }
+        }
+
+        return timeline;
+    }
+
+    /**
+     * 월별 작성 통계 (from ~ to 의 모든 달 포함, 일기가 없는 달은 0)
+     *
+     * 기간을 MONTHS_PER_PARTITION 개월 단위로 나누어 통계용 ForkJoin 풀에서 병렬로 조회하고 합칩니다.
+     * 각 작업은 자기 읽기 커넥션을 따로 사용하며, 한 구간 이하의 짧은 기간은 호출 스레드에서 바로 조회합니다.
+     */
+    public SortedMap<YearMonth, MonthlyStats> getMonthlyStats(YearMonth from, YearMonth to) throws SQLException {
+        if (to.isBefore(from)) {
+            return new TreeMap<>();
+        }
+        try {
+            MonthRangeTask task = new MonthRangeTask(from, to);
+            return task.isPartition() ? task.compute() : databaseUtil.getStatsPool().invoke(task);
+        } catch (RuntimeException e) {
+            // 작업이 감싼 조회 오류를 꺼내 던짐 (invoke 는 다른 스레드의 예외를 한 번 더 감쌀 수 있음)
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 한 구간의 월별 통계 조회 (날짜순으로 읽으며 월 경계마다 다음 달로 이동)
+     */
+    private SortedMap<YearMonth, MonthlyStats> aggregateMonths(YearMonth from, YearMonth to) throws SQLException {
+        SortedMap<YearMonth, MonthlyStats> result = new TreeMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            result.put(month, new MonthlyStats(month));
+        }
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DAILY_EMOTION_COUNTS_SQL)) {
+
+            bindDayRange(pstmt, from.atDay(1), to.atEndOfMonth());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                YearMonth month = from;
+                MonthlyStats stats = result.get(month);
+                long monthEnd = month.atEndOfMonth().toEpochDay();
+                long previousDay = Long.MIN_VALUE;
+                while (rs.next()) {
+                    long day = rs.getLong("day");
+                    while (day > monthEnd) {
+                        month = month.plusMonths(1);
+                        stats = result.get(month);
+                        monthEnd = month.atEndOfMonth().toEpochDay();
+                    }
+                    if (day != previousDay) {
+                        stats.activeDays++;
+                        previousDay = day;
+                    }
+                    stats.add(rs.getString("emotion"), rs.getInt("count"));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 기간 내 감정 강도/신뢰도 평균 추이 - 구간 단위는 getTimeline 과 같은 방식으로 선택
+     * 분석 결과가 있는 일기만 집계하며 분석된 일기가 없는 구간의 평균은 0 입니다.
+     */
+    public IntensityTrend getIntensityTrend(LocalDate from, LocalDate to, int maxPoints) throws SQLException {
+        Granularity granularity = Granularity.choose(from, to, maxPoints);
+        IntensityTrend trend = new IntensityTrend(granularity, granularity.bucketStarts(from, to));
+        int bucket = 0;
+
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DAILY_INTENSITY_SQL)) {
+
+            bindDayRange(pstmt, from, to);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDate day = LocalDate.ofEpochDay(rs.getLong("day"));
+                    while (bucket + 1 < trend.bucketStarts.size()
+                           && !day.isBefore(trend.bucketStarts.get(bucket + 1))) {
+                        bucket++;
+                    }
+                    trend.add(bucket, rs.getInt("count"), rs.getDouble("intensity_sum"), rs.getDouble("confidence_sum"));
+                }
+            }
+        }
+
+        return trend;
+    }
+
+    /**
+     * 월별 키워드 빈도 스케치 (기록이 없거나 저장된 값을 읽을 수 없으면 빈 스케치)
+     */
+    public KeywordSketch getKeywordSketch(YearMonth month) throws SQLException {
+        byte[] stored;
+        try (Connection conn = databaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(KEYWORD_SKETCH_SQL)) {
+
+            pstmt.setInt(1, month.getYear() * 100 + month.getMonthValue());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                stored = rs.next() ? rs.getBytes("sketch") : null;
+            }
+        }
+        try {
+            return KeywordSketch.fromBytes(stored);
+        } catch (IOException e) {
+            // 손상된 값은 다시 읽어도 같으므로 빈 스케치로 응답 (다음 일기 저장 시 새로 시작됨)
+            logger.error("Unreadable keyword sketch for {}", month, e);
+            return new KeywordSketch(KeywordSketch.DEFAULT_CAPACITY);
+        }
+    }
+
+    /**
+     * 집계 테이블을 diary 로부터 다시 생성 (한 번의 쓰기 트랜잭션)
+     * 마이그레이션 backfill 이 진행 중이면 중복 집계를 막기 위해 실행하지 않음
+     */
+    public boolean rebuildDailyEmotionCounts() {
+        boolean rollupReady = databaseUtil.getMigrationStatus().stream()
+            .anyMatch(status -> status.version == ROLLUP_SCHEMA_VERSION && status.isComplete());
+        if (!rollupReady) {
+            logger.warn("daily_emotion_counts backfill has not completed yet; skipping rebuild");
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            int rows = databaseUtil.getWriter().execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM daily_emotion_counts");
+                    return stmt.executeUpdate("""
+                        INSERT INTO daily_emotion_counts (day, emotion, count)
+                        SELECT created_day, COALESCE(emotion_summary, ''), COUNT(*)
+                        FROM diary
+                        WHERE created_day IS NOT NULL
+                        GROUP BY created_day, COALESCE(emotion_summary, '')
+                        """);
+                }
+            });
+            logger.info("Rebuilt daily_emotion_counts: {} rows in {}ms", rows, System.currentTimeMillis() - start);
+            return true;
+        } catch (SQLException e) {
+            logger.error("Failed to rebuild daily_emotion_counts", e);
+            return false;
+        }
+    }
+
+    /**
+     * 날짜 범위를 epoch day 로 바인딩 (null 은 무제한)
+     */
+    private void bindDayRange(PreparedStatement pstmt, LocalDate from, LocalDate to) throws SQLException {
+        pstmt.setLong(1, from != null ? from.toEpochDay() : Long.MIN_VALUE);
+        pstmt.setLong(2, to != null ? to.toEpochDay() : Long.MAX_VALUE);
+    }
+
+    /**
+     * 추이 구간 단위
+     */
+    public enum Granularity {
+        DAY(DateTimeFormatter.ISO_LOCAL_DATE),
+        WEEK(DateTimeFormatter.ISO_LOCAL_DATE),
+        MONTH(DateTimeFormatter.ofPattern("yyyy-MM")),
+        YEAR(DateTimeFormatter.ofPattern("yyyy"));
+
+        private final DateTimeFormatter labelFormat;
+
+        Granularity(DateTimeFormatter labelFormat) {
+            this.labelFormat = labelFormat;
+        }
+
+        /**
+         * 구간 수가 maxPoints 이하인 가장 작은 단위 (모두 넘으면 YEAR)
+         */
+        static Granularity choose(LocalDate from, LocalDate to, int maxPoints) {
+            for (Granularity granularity : values()) {
+                if (granularity.countBuckets(from, to) <= maxPoints) {
+                    return granularity;
+                }
+            }
+            return YEAR;
+        }
+
+        /**
+         * date 가 속한 구간의 시작일 (주는 월요일 시작)
+         */
+        LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+                case YEAR -> date.withDayOfYear(1);
+            };
+        }
+
+        LocalDate nextBucket(LocalDate bucketStart) {
+            return switch (this) {
+                case DAY -> bucketStart.plusDays(1);
+                case WEEK -> bucketStart.plusWeeks(1);
+                case MONTH -> bucketStart.plusMonths(1);
+                case YEAR -> bucketStart.plusYears(1);
+            };
+        }
+
+        long countBuckets(LocalDate from, LocalDate to) {
+            LocalDate first = bucketStart(from);
+            LocalDate last = bucketStart(to);
+            return switch (this) {
+                case DAY -> ChronoUnit.DAYS.between(first, last) + 1;
+                case WEEK -> ChronoUnit.WEEKS.between(first, last) + 1;
+                case MONTH -> ChronoUnit.MONTHS.between(YearMonth.from(first), YearMonth.from(last)) + 1;
+                case YEAR -> last.getYear() - first.getYear() + 1;
+            };
+        }
+
+        List<LocalDate> bucketStarts(LocalDate from, LocalDate to) {
+            List<LocalDate> starts = new ArrayList<>();
+            for (LocalDate start = bucketStart(from); !start.isAfter(to); start = nextBucket(start)) {
+                starts.add(start);
+            }
+            return starts;
+        }
+
+        public String label(LocalDate bucketStart) {
+            return bucketStart.format(labelFormat);
+        }
+    }
+
+    /**
+     * 감정별 작성 추이 클래스 (구간 순서대로 정렬된 배열)
+     */
+    public static class Timeline {
+        public final Granularity granularity;
+        public final List<LocalDate> bucketStarts;
+        public final int[] counts;
+        // 감정 -> 구간별 개수 (감정이 없는 일기는 counts 에만 포함)
+        public final Map<String, int[]> emotionCounts = new LinkedHashMap<>();
+
+        Timeline(Granularity granularity, List<LocalDate> bucketStarts) {
+            this.granularity = granularity;
+            this.bucketStarts = bucketStarts;
+            this.counts = new int[bucketStarts.size()];
+        }
+
+        void add(int bucket, String emotion, int count) {
+            counts[bucket] += count;
+            if (emotion != null && !emotion.isEmpty()) {
+                emotionCounts.computeIfAbsent(emotion, key -> new int[counts.length])[bucket] += count;
+            }
+        }
+
+        public int size() {
+            return counts.length;
+        }
+
+        /**
+         * 구간에서 가장 많이 기록된 감정 (동률이면 Emotion 선언 순서, 기록이 없으면 null)
+         */
+        public String getDominantEmotion(int bucket) {
+            String dominant = null;
+            int dominantCount = 0;
+            for (Map.Entry<String, int[]> entry : emotionCounts.entrySet()) {
+                int count = entry.getValue()[bucket];
+                if (count > dominantCount
+                    || (count == dominantCount && count > 0 && rank(entry.getKey()) < rank(dominant))) {
+                    dominant = entry.getKey();
+                    dominantCount = count;
+                }
+            }
+            return dominant;
+        }
+
+        private static int rank(String emotion) {
+            Emotion known = Emotion.fromLabel(emotion);
+            return known == Emotion.UNKNOWN ? Integer.MAX_VALUE : known.getCode();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Timeline{granularity=%s, buckets=%d, emotions=%s}",
+                                 granularity, counts.length, emotionCounts.keySet());
+        }
+    }
+
+    /**
+     * 월 범위 집계 작업 - MONTHS_PER_PARTITION 개월 이하가 될 때까지 반으로 나눔
+     * 조회 오류는 IllegalStateException 으로 감싸 invoke 호출자에게 전달됩니다.
+     */
+    private final class MonthRangeTask extends RecursiveTask<SortedMap<YearMonth, MonthlyStats>> {
+        private static final long serialVersionUID = 1L;
+
+        private final YearMonth from;
+        private final YearMonth to;
+
+        MonthRangeTask(YearMonth from, YearMonth to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean isPartition() {
+            return ChronoUnit.MONTHS.between(from, to) < MONTHS_PER_PARTITION;
+        }
+
+        @Override
+        protected SortedMap<YearMonth, MonthlyStats> compute() {
+            if (isPartition()) {
+                try {
+                    return aggregateMonths(from, to);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Failed to aggregate " + from + " ~ " + to, e);
+                }
+            }
+
+            YearMonth middle = from.plusMonths(ChronoUnit.MONTHS.between(from, to) / 2);
+            MonthRangeTask left = new MonthRangeTask(from, middle);
+            left.fork();
+            SortedMap<YearMonth, MonthlyStats> right = new MonthRangeTask(middle.plusMonths(1), to).compute();
+            SortedMap<YearMonth, MonthlyStats> result = left.join();
+            // 구간이 겹치지 않으므로 그대로 합침
+            result.putAll(right);
+            return result;
+        }
+    }
+
+    /**
+     * 월별 작성 통계 클래스
+     */
+    public static class MonthlyStats {
+        public final YearMonth month;
+        public int total;
+        public int activeDays;
+        // 감정 -> 개수 (감정이 없는 일기는 total 에만 포함)
+        public final Map<String, Integer> emotionCounts = new HashMap<>();
+
+        MonthlyStats(YearMonth month) {
+            this.month = month;
+        }
+
+        void add(String emotion, int count) {
+            total += count;
+            if (emotion != null && !emotion.isEmpty()) {
+                emotionCounts.merge(emotion, count, Integer::sum);
+            }
+        }
+
+        /**
+         * 가장 많이 기록된 감정 (동률이면 Emotion 선언 순서, 기록이 없으면 null)
+         */
+        public String getDominantEmotion() {
+            String dominant = null;
+            int dominantCount = 0;
+            for (Map.Entry<String, Integer> entry : emotionCounts.entrySet()) {
+                int count = entry.getValue();
+                if (count > dominantCount
+                    || (count == dominantCount && Timeline.rank(entry.getKey()) < Timeline.rank(dominant))) {
+                    dominant = entry.getKey();
+                    dominantCount = count;
+                }
+            }
+            return dominant;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("MonthlyStats{month=%s, total=%d, activeDays=%d, emotions=%s}",
+                                 month, total, activeDays, emotionCounts);
+        }
+    }
+
+    /**
+     * 감정 강도/신뢰도 추이 클래스 (구간별 분석 일기 수와 합계, 평균은 합계 / 개수)
+     */
+    public static class IntensityTrend {
+        public final Granularity granularity;
+        public final List<LocalDate> bucketStarts;
+        public final int[] counts;
+        public final double[] intensitySums;
+        public final double[] confidenceSums;
+
+        IntensityTrend(Granularity granularity, List<LocalDate> bucketStarts) {
+            this.granularity = granularity;
+            this.bucketStarts = bucketStarts;
+            this.counts = new int[bucketStarts.size()];
+            this.intensitySums = new double[counts.length];
+            this.confidenceSums = new double[counts.length];
+        }
+
+        void add(int bucket, int count, double intensitySum, double confidenceSum) {
+            counts[bucket] += count;
+            intensitySums[bucket] += intensitySum;
+            confidenceSums[bucket] += confidenceSum;
+        }
+
+        public int size() {
+            return counts.length;
+        }
+
+        public double getAverageIntensity(int bucket) {
+            return counts[bucket] > 0 ? intensitySums[bucket] / counts[bucket] : 0.0;
+        }
+
+        public double getAverageConfidence(int bucket) {
+            return counts[bucket] > 0 ? confidenceSums[bucket] / counts[bucket] : 0.0;
+        }
+
+        public int getTotalCount() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * 전체 기간 평균 강도 (일기 단위 평균)
+         */
+        public double getOverallIntensity() {
+            int total = getTotalCount();
+            return total > 0 ? sum(intensitySums) / total : 0.0;
+        }
+
+        /**
+         * 전체 기간 평균 신뢰도 (일기 단위 평균)
+         */
+        public double getOverallConfidence() {
+            int total = getTotalCount();
+            return total > 0 ? sum(confidenceSums) / total : 0.0;
+        }
+
+        private static double sum(double[] values) {
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("IntensityTrend{granularity=%s, buckets=%d, analyzed=%d, intensity=%.3f, confidence=%.3f}",
+                                 granularity, counts.length, getTotalCount(), getOverallIntensity(), getOverallConfidence());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package model;
 
 public class Diary {
+    private long id;
     private String content;
     private String emotionSummary;
     private String createdAt;
@@ -11,6 +12,15 @@ public class Diary {
         this.createdAt = createdAt;
     }
 
+    public Diary(long id, String content, String emotionSummary, String createdAt) {
+        this(content, emotionSummary, createdAt);
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
     public String getContent() {
         return content;
     }
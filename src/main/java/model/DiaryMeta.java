@@ -0,0 +1,50 @@
+package model;
+
+/**
+ * 본문을 제외한 일기 메타데이터 (통계, 집계, 내보내기용 경량 행)
+ */
+public final class DiaryMeta {
+    private final long id;
+    private final long epochDay;
+    private final byte emotionCode;
+    private final int contentLength;
+
+    public DiaryMeta(long id, long epochDay, byte emotionCode, int contentLength) {
+        this.id = id;
+        this.epochDay = epochDay;
+        this.emotionCode = emotionCode;
+        this.contentLength = contentLength;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * 작성일 (epoch day)
+     */
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public byte getEmotionCode() {
+        return emotionCode;
+    }
+
+    public Emotion getEmotion() {
+        return Emotion.fromCode(emotionCode);
+    }
+
+    /**
+     * 본문 길이 (UTF-8 바이트)
+     */
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DiaryMeta{id=%d, day=%d, emotion=%s, length=%d}",
+                             id, epochDay, getEmotion(), contentLength);
+    }
+}
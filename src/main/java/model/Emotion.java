@@ -0,0 +1,64 @@
+package model;
+
+/**
+ * 감정 분류와 고정 코드
+ *
+ * 코드는 저장/전송용 압축 표현이므로 기존 값의 코드를 바꾸지 말고 새 감정은 뒤에 추가합니다.
+ */
+public enum Emotion {
+    UNKNOWN(0, ""),
+    HAPPY(1, "행복"),
+    CALM(2, "평온"),
+    COMPLEX(3, "복잡"),
+    TIRED(4, "피로"),
+    ANXIOUS(5, "불안"),
+    SAD(6, "슬픔"),
+    ANGRY(7, "분노"),
+    NEUTRAL(8, "중립");
+
+    private static final Emotion[] BY_CODE = new Emotion[values().length];
+
+    static {
+        for (Emotion emotion : values()) {
+            BY_CODE[emotion.code] = emotion;
+        }
+    }
+
+    private final byte code;
+    private final String label;
+
+    Emotion(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 코드로 조회 (알 수 없는 코드는 UNKNOWN)
+     */
+    public static Emotion fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length && BY_CODE[code] != null ? BY_CODE[code] : UNKNOWN;
+    }
+
+    /**
+     * emotion_summary 값으로 조회 (null, 빈 값, 알 수 없는 값은 UNKNOWN)
+     */
+    public static Emotion fromLabel(String label) {
+        if (label == null || label.isEmpty()) {
+            return UNKNOWN;
+        }
+        for (Emotion emotion : values()) {
+            if (emotion.label.equals(label)) {
+                return emotion;
+            }
+        }
+        return UNKNOWN;
+    }
+}
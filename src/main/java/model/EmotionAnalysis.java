@@ -0,0 +1,93 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 감정 분석 결과 (주요 감정, 신뢰도, 강도, 감정별 점수)
+ *
+ * 감정별 점수는 Emotion 코드 순서의 고정 배열이며, 저장 시 float32 리틀 엔디언 BLOB 으로 압축합니다.
+ * 배열 길이가 감정 수를 나타내므로 뒤에 감정이 추가되어도 이전 BLOB 을 그대로 읽을 수 있습니다.
+ */
+public final class EmotionAnalysis {
+    private final String emotion;
+    private final double confidence;
+    private final double intensity;
+    private final float[] scores;
+    private final String[] tokens;
+
+    public EmotionAnalysis(String emotion, double confidence, double intensity, float[] scores) {
+        this(emotion, confidence, intensity, scores, new String[0]);
+    }
+
+    /**
+     * @param emotion 분석된 감정 (복합 감정은 "행복+평온" 형식)
+     * @param confidence 신뢰도 (0 ~ 1)
+     * @param intensity 감정 강도 (0 ~ 1)
+     * @param scores Emotion 코드를 인덱스로 하는 감정별 점수
+     * @param tokens 분석에 사용한 단어 (키워드 통계용, 저장된 결과에는 없음)
+     */
+    public EmotionAnalysis(String emotion, double confidence, double intensity, float[] scores, String[] tokens) {
+        this.emotion = emotion;
+        this.confidence = confidence;
+        this.intensity = intensity;
+        this.scores = scores;
+        this.tokens = tokens;
+    }
+
+    public String getEmotion() {
+        return emotion;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public double getIntensity() {
+        return intensity;
+    }
+
+    /**
+     * 감정별 점수 (배열 범위를 벗어난 감정은 0)
+     */
+    public float getScore(Emotion emotion) {
+        int code = emotion.getCode();
+        return code < scores.length ? scores[code] : 0f;
+    }
+
+    public String[] getTokens() {
+        return tokens;
+    }
+
+    /**
+     * 저장용 점수 BLOB (감정당 4바이트)
+     */
+    public byte[] toScoreBlob() {
+        ByteBuffer buffer = ByteBuffer.allocate(scores.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float score : scores) {
+            buffer.putFloat(score);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 저장된 점수 BLOB 해석 (null 이면 빈 배열)
+     */
+    public static float[] scoresFromBlob(byte[] blob) {
+        if (blob == null) {
+            return new float[0];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN);
+        float[] scores = new float[blob.length / Float.BYTES];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = buffer.getFloat();
+        }
+        return scores;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EmotionAnalysis{emotion=%s, confidence=%.3f, intensity=%.3f}",
+                             emotion, confidence, intensity);
+    }
+}
@@ -2,7 +2,32 @@ package test;
 
 import api.MindAnalyzer;
 import dao.DiaryDAO;
+import dao.DiaryQuery;
+import dao.ReanalysisJob;
+import dao.StatsDAO;
+import model.Emotion;
+import model.EmotionAnalysis;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import util.ConnectionPool;
 import util.DatabaseUtil;
+import util.FuzzyKeywordIndex;
+import util.GroupCommitWriter;
+import util.InflectionTable;
+import util.KeywordAutomaton;
+import util.TokenizedText;
+import util.RetentionPurge;
+import util.SchemaMigrations;
+import util.SchemaMigrator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 
 public class MindDiaryTest {
     public static void main(String[] args) {
@@ -36,16 +61,129 @@ public class MindDiaryTest {
                 System.out.println();
             }
             
+            // 키워드 검색기는 keyword 마다 contains 한 결과와 같아야 함 (겹치는 키워드 포함)
+            List<String> keywords = Arrays.asList("행복", "행복한", "복", "하루", "하루였", "스트레스", "지쳐", "피곤하고", "시간", "간을");
+            KeywordAutomaton automaton = new KeywordAutomaton(keywords);
+            boolean matchOk = true;
+            for (String diary : testDiaries) {
+                boolean[] found = automaton.match(diary);
+                for (int i = 0; i < keywords.size(); i++) {
+                    matchOk &= found[i] == diary.contains(keywords.get(i));
+                }
+            }
+            System.out.println("키워드 검색기: " + automaton + " " + (matchOk ? "✅ 성공" : "❌ 실패"));
+            
+            // 유사 키워드 색인은 모든 키워드와 레벤슈타인 거리를 구한 결과와 같아야 함
+            FuzzyKeywordIndex fuzzyIndex = new FuzzyKeywordIndex(keywords, 0.7);
+            LevenshteinDistance levenshtein = new LevenshteinDistance();
+            int[] ids = new int[keywords.size()];
+            double[] similarities = new double[keywords.size()];
+            boolean fuzzyOk = true;
+            for (String word : Arrays.asList("행볶한", "스트래스", "스트레스를", "피곤하구", "하루엿", "시간을", "복", "지쳐서요")) {
+                int count = fuzzyIndex.search(word, 0, word.length(), ids, similarities);
+                int expected = 0;
+                for (int i = 0; i < keywords.size(); i++) {
+                    String keyword = keywords.get(i);
+                    double similarity = 1.0 - ((double) levenshtein.apply(keyword, word) / Math.max(keyword.length(), word.length()));
+                    if (similarity > 0.7) {
+                        fuzzyOk &= expected < count && ids[expected] == i && similarities[expected] == similarity;
+                        expected++;
+                    }
+                }
+                fuzzyOk &= count == expected;
+            }
+            System.out.println("유사 키워드 색인: " + fuzzyIndex + " " + (fuzzyOk ? "✅ 성공" : "❌ 실패"));
+            
+            // 단어 분리: 소문자 변환, 한글/영문/숫자 외 문자는 구분자, 같은 단어는 처음 위치를 가리킴
+            TokenizedText tokens = TokenizedText.tokenize(" Hello, 세계! 오늘은 2024년...hello");
+            boolean tokensOk = tokens.toString().equals("hello 세계 오늘은 2024년 hello")
+                               && tokens.getTokenCount() == 5
+                               && tokens.getFirstOccurrence(4) == 0
+                               && tokens.getWordCount() == " Hello, 세계! 오늘은 2024년...hello".split("\\s+").length;
+            System.out.println("단어 분리: " + tokens + " " + (tokensOk ? "✅ 성공" : "❌ 실패"));
+            
+            // 활용형은 기본형 키워드로 찾아야 함 (기뻤다 -> 기쁘다, 힘든 -> 힘들다)
+            InflectionTable inflections = new InflectionTable(Arrays.asList("기쁘다", "힘들다", "즐겁다"));
+            int[] stemIds = new int[3];
+            boolean inflectionOk = inflections.lookup("기뻤다", 0, 3, stemIds) == 1 && stemIds[0] == 0
+                                   && inflections.lookup("힘든", 0, 2, stemIds) == 1 && stemIds[0] == 1
+                                   && inflections.lookup("즐거웠어요", 0, 5, stemIds) == 1 && stemIds[0] == 2
+                                   && inflections.lookup("기차", 0, 2, stemIds) == 0
+                                   && analyzer.analyzeEmotion("친구가 이사를 가서 너무 슬펐어. 혼자 남으니 외로웠다.").equals("슬픔");
+            System.out.println("활용형 매칭: " + inflections + " " + (inflectionOk ? "✅ 성공" : "❌ 실패"));
+            
             // 3. 데이터베이스 저장 테스트
             System.out.println("💾 데이터베이스 저장 테스트...");
             DiaryDAO dao = new DiaryDAO();
-            boolean saved = dao.insertDiary(testDiaries[0], analyzer.analyzeEmotion(testDiaries[0]));
+            EmotionAnalysis analysis = analyzer.analyze(testDiaries[0]);
+            boolean saved = dao.insertDiary(testDiaries[0], analysis.getEmotion(), analysis);
             System.out.println("일기 저장: " + (saved ? "✅ 성공" : "❌ 실패"));
+            // 저장된 감정 점수는 id 로 다시 읽어 비교 (동기 insertDiary 는 id 를 돌려주지 않음)
+            long savedId = dao.insertDiaryAsync(testDiaries[0], analysis.getEmotion(), analysis).get();
+            EmotionAnalysis stored = dao.getEmotionAnalysis(savedId);
+            boolean scoresOk = stored != null && stored.getEmotion().equals(analyzer.analyzeEmotion(testDiaries[0]));
+            for (Emotion emotion : Emotion.values()) {
+                scoresOk &= stored != null && stored.getScore(emotion) == analysis.getScore(emotion);
+            }
+            System.out.println("감정 점수 저장: " + stored + " " + (scoresOk ? "✅ 성공" : "❌ 실패"));
+            
+            // 런타임 오류를 던진 쓰기 작업은 그 작업만 되돌리고, writer 는 계속 다음 쓰기를 처리해야 함
+            boolean writerOk = false;
+            try {
+                dbUtil.getWriter().execute(conn -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "INSERT INTO user_settings (setting_key, setting_value, created_at, updated_at) "
+                            + "VALUES ('writer_test', 'partial', '', '')")) {
+                        pstmt.executeUpdate();
+                    }
+                    throw new IllegalStateException("writer test");
+                });
+            } catch (SQLException e) {
+                writerOk = e.getCause() instanceof IllegalStateException;
+            }
+            // Error 도 writer 스레드를 멈추지 않고 그 배치만 실패해야 함
+            try {
+                dbUtil.getWriter().execute(conn -> {
+                    throw new AssertionError("writer test");
+                });
+                writerOk = false;
+            } catch (SQLException e) {
+                writerOk &= e.getCause() instanceof AssertionError;
+            }
+            writerOk &= dbUtil.getSetting("writer_test", null) == null && dbUtil.setSetting("writer_test_ok", "true");
+            System.out.println("쓰기 작업 오류 격리: " + (writerOk ? "✅ 성공" : "❌ 실패"));
+            
+            // 일괄 분석은 한 건씩 분석한 결과와 같고 입력 순서를 지켜야 함
+            List<EmotionAnalysis> batch = analyzer.analyzeBatch(Arrays.asList(testDiaries));
+            boolean batchOk = batch.size() == testDiaries.length;
+            for (int i = 0; batchOk && i < testDiaries.length; i++) {
+                batchOk = batch.get(i).getEmotion().equals(analyzer.analyzeEmotion(testDiaries[i]));
+            }
+            System.out.println("일괄 분석: " + batch.size() + "건 " + (batchOk ? "✅ 성공" : "❌ 실패"));
+            
+            // 재분석은 분석 결과가 없던(V7 이전) 일기에서 사용자가 고른 감정을 바꾸지 않아야 함 (임시 DB 에서 실행)
+            System.out.println("재분석 사용자 감정 유지: " + (checkReanalysisKeepsChosenEmotion(analyzer) ? "✅ 성공" : "❌ 실패"));
             
             // 4. 통계 조회 테스트
             System.out.println("\n📊 통계 데이터 테스트...");
             System.out.println("총 일기 개수: " + dao.getTotalDiaryCount());
             System.out.println("감정 통계: " + dao.getEmotionStatistics());
+            System.out.println("감정 강도 추이: " + new StatsDAO().getIntensityTrend(LocalDate.now().minusDays(29), LocalDate.now(), 120));
+            long metadataRows = dao.forEachMetadata(new DiaryQuery(), meta -> { });
+            System.out.println("메타데이터 스트리밍: " + metadataRows + "건 "
+                               + (metadataRows == dao.getTotalDiaryCount() ? "✅ 성공" : "❌ 실패"));
+            
+            // 5. 날짜 조건 실행 계획 테스트 (전체 테이블 스캔 없이 인덱스 범위 탐색해야 함)
+            System.out.println("\n🔍 날짜 조회 실행 계획 테스트...");
+            long today = LocalDate.now().toEpochDay();
+            boolean planOk = true;
+            planOk &= checkIndexSeek(dbUtil, "getDiariesByDate", DiaryDAO.SELECT_BY_DAY_SQL, today);
+            planOk &= checkIndexSeek(dbUtil, "getDiaryCountForLastDays", DiaryDAO.COUNT_SINCE_SQL,
+                                     System.currentTimeMillis() - 7 * 86_400_000L);
+            planOk &= checkIndexSeek(dbUtil, "cleanupOldData (range)", RetentionPurge.PURGE_RANGE_SQL, today - 365);
+            planOk &= checkIndexSeek(dbUtil, "cleanupOldData (chunk)", RetentionPurge.PURGE_CHUNK_SQL, 0, 500, today - 365);
+            planOk &= checkIndexSeek(dbUtil, "getIntensityTrend", StatsDAO.DAILY_INTENSITY_SQL, today - 30, today);
+            System.out.println("날짜 조회 인덱스 사용: " + (planOk ? "✅ 성공" : "❌ 실패"));
             
             System.out.println("\n🎉 모든 테스트 완료! 프로젝트가 정상 작동합니다.");
             System.out.println("\n🌐 웹 서버 실행을 원하시면 IntelliJ에서 Tomcat 설정 후 실행하세요!");
@@ -55,5 +193,86 @@ public class MindDiaryTest {
             e.printStackTrace();
         }
     }
+    
+    /**
+     * V6 까지 적용된 임시 DB 에 사용자가 감정을 고른 일기를 넣고 V7 이후를 적용한 뒤 재분석
+     * 기본 실행은 emotion_summary 를 유지하고 분석 결과만 채우며, replaceUnanalyzedSummaries 를 켜야 바뀌어야 함
+     */
+    private static boolean checkReanalysisKeepsChosenEmotion(MindAnalyzer analyzer) throws Exception {
+        String content = "오늘은 정말 행복한 하루였어요! 친구들과 즐거운 시간을 보냈습니다.";
+        String chosen = analyzer.analyzeEmotion(content).equals("슬픔") ? "분노" : "슬픔";
+        Path dbFile = Files.createTempFile("mindiary-reanalysis", ".db");
+        ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dbFile, 2, 5000L);
+        GroupCommitWriter writer = new GroupCommitWriter(pool.openWriterConnection(), 16, 0, 5);
+        SchemaMigrator preV7 = new SchemaMigrator(pool, writer, SchemaMigrations.all().subList(0, 6), 500, 0);
+        SchemaMigrator current = new SchemaMigrator(pool, writer, SchemaMigrations.all(), 500, 0);
+        try {
+            preV7.migrate();
+            long day = LocalDate.now().toEpochDay();
+            writer.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO diary (content, emotion_summary, created_at, updated_at, created_at_ms, created_day) "
+                        + "VALUES (?, ?, '', '', ?, ?)")) {
+                    pstmt.setString(1, content);
+                    pstmt.setString(2, chosen);
+                    pstmt.setLong(3, System.currentTimeMillis());
+                    pstmt.setLong(4, day);
+                    return pstmt.executeUpdate();
+                }
+            });
+            current.migrate();
+
+            ReanalysisJob job = new ReanalysisJob(pool, writer, analyzer, ReanalysisJob.DEFAULT_CHUNK_SIZE);
+            ReanalysisJob.ReanalysisProgress kept = job.run(true, false);
+            boolean ok = kept.changedSummaries == 0 && kept.backfilledAnalyses == 1
+                         && chosen.equals(readSummary(pool)) && countAnalyses(pool) == 1;
+
+            // 명시적으로 요청하면 분석 결과가 없던 일기의 감정도 분석 결과로 바꿈
+            writer.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM emotion_analyses")) {
+                    return pstmt.executeUpdate();
+                }
+            });
+            ReanalysisJob.ReanalysisProgress replaced = job.run(true, true);
+            ok &= replaced.changedSummaries == 1 && analyzer.analyzeEmotion(content).equals(readSummary(pool));
+            return ok;
+        } finally {
+            preV7.shutdown();
+            current.shutdown();
+            writer.shutdown();
+            pool.close();
+            for (String suffix : new String[] {"", "-wal", "-shm"}) {
+                Files.deleteIfExists(Path.of(dbFile + suffix));
+            }
+        }
+    }
+
+    private static String readSummary(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT emotion_summary FROM diary");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static int countAnalyses(ConnectionPool pool) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM emotion_analyses");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * EXPLAIN QUERY PLAN 결과에 diary, emotion_analyses 테이블 전체 스캔이 없는지 확인
+     */
+    private static boolean checkIndexSeek(DatabaseUtil dbUtil, String name, String sql, Object... params)
+            throws SQLException {
+        List<String> plan = dbUtil.explainQueryPlan(sql, params);
+        boolean fullScan = plan.stream().anyMatch(detail -> detail.startsWith("SCAN diary")
+                                                           || detail.startsWith("SCAN emotion_analyses"));
+        System.out.println((fullScan ? "❌ " : "✅ ") + name + ": " + plan);
+        return !fullScan;
+    }
 }
 
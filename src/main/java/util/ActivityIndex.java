@@ -0,0 +1,390 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 날짜별 작성 여부 색인 (연도별 비트셋, 하루 1비트)
+ *
+ * 연속 작성일, 최장 연속 기록, 기간 내 작성일 수를 long 단위 비트 연산으로 계산하므로 diary 를 조회하지 않습니다.
+ * DB 파일 옆에 저장되며, 시작 시 저장된 지문(created_day 행 수, 최대 id)이 DB 와 다르면 created_day 인덱스로 다시 만듭니다.
+ * created_day backfill 중에는 loadPartial 로 채운 색인을 메모리에서만 쓰고, 완료 후 rebuild 로 다시 만들어 저장합니다.
+ */
+public class ActivityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityIndex.class);
+
+    private static final int FILE_MAGIC = 0x4D444149; // "MDAI"
+    private static final int FILE_VERSION = 1;
+    // 366일을 담는 long 개수
+    private static final int WORDS_PER_YEAR = 6;
+
+    private static final String FINGERPRINT_SQL = "SELECT COUNT(created_day), COALESCE(MAX(id), 0) FROM diary";
+    private static final String ACTIVE_DAYS_SQL = """
+        SELECT DISTINCT created_day
+        FROM diary
+        WHERE created_day >= ? AND created_day <= ?
+        """;
+
+    private final ConnectionPool connectionPool;
+    private final Path file;
+
+    // 연도 -> 비트셋 (비트 i = 그 해의 i+1 번째 날)
+    private final TreeMap<Integer, long[]> years = new TreeMap<>();
+    // created_day 가 모든 행에 채워진 상태에서 만든 색인인지 (아니면 파일에 저장하지 않음)
+    private boolean complete = true;
+
+    /**
+     * @param file 저장 파일 (null 이면 메모리에만 유지)
+     */
+    public ActivityIndex(ConnectionPool connectionPool, Path file) {
+        this.connectionPool = connectionPool;
+        this.file = file;
+    }
+
+    /**
+     * 저장 파일을 읽고, 없거나 DB 와 맞지 않으면 다시 생성
+     */
+    public synchronized void load() throws SQLException {
+        long[] fingerprint = queryFingerprint();
+        if (file != null && readFile(fingerprint)) {
+            logger.info("Activity index loaded from {}: {} years", file, years.size());
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * created_day backfill 이 끝나지 않았을 때 - 파일을 읽지 않고 지금 채워진 행으로만 만들며, rebuild 전까지 저장하지 않음
+     */
+    public synchronized void loadPartial() throws SQLException {
+        complete = false;
+        years.clear();
+        int days = loadActiveDays(Long.MIN_VALUE, Long.MAX_VALUE);
+        logger.info("Activity index loaded without saving until created_day backfill completes: {} active days", days);
+    }
+
+    /**
+     * created_day 인덱스로 전체 색인 재생성
+     */
+    public synchronized void rebuild() throws SQLException {
+        long start = System.currentTimeMillis();
+        years.clear();
+        int days = loadActiveDays(Long.MIN_VALUE, Long.MAX_VALUE);
+        complete = true;
+        logger.info("Activity index rebuilt: {} active days in {}ms", days, System.currentTimeMillis() - start);
+        save();
+    }
+
+    /**
+     * 일기가 저장된 날 표시
+     */
+    public synchronized void markActive(long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        int bit = date.getDayOfYear() - 1;
+        years.computeIfAbsent(date.getYear(), year -> new long[WORDS_PER_YEAR])[bit >>> 6] |= 1L << bit;
+    }
+
+    /**
+     * 기간(양 끝 포함)의 비트를 DB 기준으로 다시 계산 - 일기 삭제 후 호출
+     * 색인에 없는 연도는 지울 것이 없으므로 색인된 범위로 좁혀서 처리합니다.
+     */
+    public synchronized void refresh(long fromEpochDay, long toEpochDay) throws SQLException {
+        if (!years.isEmpty()) {
+            long first = LocalDate.of(years.firstKey(), 1, 1).toEpochDay();
+            long last = LocalDate.of(years.lastKey(), 12, 31).toEpochDay();
+            for (long day = Math.max(fromEpochDay, first); day <= Math.min(toEpochDay, last); day++) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                long[] words = years.get(date.getYear());
+                if (words == null) {
+                    // 색인에 없는 연도는 건너뜀
+                    day = LocalDate.of(date.getYear(), 12, 31).toEpochDay();
+                    continue;
+                }
+                int bit = date.getDayOfYear() - 1;
+                words[bit >>> 6] &= ~(1L << bit);
+            }
+        }
+        loadActiveDays(fromEpochDay, toEpochDay);
+        years.values().removeIf(ActivityIndex::isEmpty);
+    }
+
+    public synchronized boolean isActive(LocalDate date) {
+        long[] words = years.get(date.getYear());
+        int bit = date.getDayOfYear() - 1;
+        return words != null && (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 현재 연속 작성일 - 오늘 작성했으면 오늘까지, 아직 작성하지 않았으면 어제까지의 연속 일수
+     */
+    public synchronized int getCurrentStreak(LocalDate today) {
+        int streak = runEndingAt(today);
+        return streak > 0 ? streak : runEndingAt(today.minusDays(1));
+    }
+
+    /**
+     * 최장 연속 작성일 (연도 경계를 넘어 이어짐)
+     */
+    public synchronized int getLongestStreak() {
+        int longest = 0;
+        int current = 0;
+        int previousYear = Integer.MIN_VALUE;
+
+        for (Map.Entry<Integer, long[]> entry : years.entrySet()) {
+            int year = entry.getKey();
+            if (year != previousYear + 1) {
+                current = 0;
+            }
+            previousYear = year;
+
+            long[] words = entry.getValue();
+            int length = Year.of(year).length();
+            for (int w = 0; w < WORDS_PER_YEAR && w << 6 < length; w++) {
+                int limit = Math.min(64, length - (w << 6));
+                long word = words[w];
+                int pos = 0;
+                while (pos < limit) {
+                    long rest = word >>> pos;
+                    if ((rest & 1) != 0) {
+                        int ones = Math.min(Long.numberOfTrailingZeros(~rest), limit - pos);
+                        current += ones;
+                        longest = Math.max(longest, current);
+                        pos += ones;
+                    } else {
+                        current = 0;
+                        if (rest == 0) {
+                            break;
+                        }
+                        pos += Long.numberOfTrailingZeros(rest);
+                    }
+                }
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * 기간(양 끝 포함) 내 작성한 날 수
+     */
+    public synchronized int countActiveDays(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (Map.Entry<Integer, long[]> entry : years.subMap(from.getYear(), true, to.getYear(), true).entrySet()) {
+            int year = entry.getKey();
+            long[] words = entry.getValue();
+            int first = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int last = year == to.getYear() ? to.getDayOfYear() - 1 : Year.of(year).length() - 1;
+
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                long word = words[w];
+                if (w == first >>> 6) {
+                    word &= -1L << first;
+                }
+                if (w == last >>> 6) {
+                    word &= (2L << last) - 1;
+                }
+                count += Long.bitCount(word);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 기간(양 끝 포함) 내 작성 여부 (비트 i = from + i 일, 히트맵용)
+     * countActiveDays 와 같이 양 끝 워드를 잘라낸 뒤, 연도 비트셋의 워드를 결과 위치로 밀어 통째로 복사합니다.
+     */
+    public synchronized BitSet getActiveDays(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return new BitSet();
+        }
+        long fromDay = from.toEpochDay();
+        long[] active = new long[(int) ((to.toEpochDay() - fromDay) / 64 + 1)];
+
+        for (Map.Entry<Integer, long[]> entry : years.subMap(from.getYear(), true, to.getYear(), true).entrySet()) {
+            int year = entry.getKey();
+            long[] words = entry.getValue();
+            int first = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int last = year == to.getYear() ? to.getDayOfYear() - 1 : Year.of(year).length() - 1;
+            // 그 해 1월 1일의 결과 비트 위치 (첫 해는 음수)
+            long yearOffset = LocalDate.of(year, 1, 1).toEpochDay() - fromDay;
+
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                long word = words[w];
+                if (w == first >>> 6) {
+                    word &= -1L << first;
+                }
+                if (w == last >>> 6) {
+                    word &= (2L << last) - 1;
+                }
+                if (word == 0) {
+                    continue;
+                }
+                // 잘라낸 비트는 모두 결과 범위 안이므로 base 는 -63 이상
+                long base = yearOffset + ((long) w << 6);
+                int index = (int) Math.floorDiv(base, 64);
+                int shift = (int) Math.floorMod(base, 64);
+                if (index >= 0) {
+                    active[index] |= word << shift;
+                }
+                if (shift != 0 && index + 1 < active.length) {
+                    active[index + 1] |= word >>> (64 - shift);
+                }
+            }
+        }
+        return BitSet.valueOf(active);
+    }
+
+    /**
+     * 현재 DB 지문과 함께 파일에 저장 (임시 파일에 쓴 뒤 교체) - 쓰기가 모두 끝난 후 호출
+     * loadPartial 로 만든 색인은 지문과 맞지 않으므로 저장하지 않습니다.
+     */
+    public synchronized void save() throws SQLException {
+        if (file == null || !complete) {
+            return;
+        }
+        long[] fingerprint = queryFingerprint();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeLong(fingerprint[0]);
+            out.writeLong(fingerprint[1]);
+            out.writeInt(years.size());
+            for (Map.Entry<Integer, long[]> entry : years.entrySet()) {
+                out.writeInt(entry.getKey());
+                for (long word : entry.getValue()) {
+                    out.writeLong(word);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write activity index {}", tempFile, e);
+            return;
+        }
+
+        try {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to save activity index {}", file, e);
+        }
+    }
+
+    /**
+     * 저장 파일 읽기 - 형식이나 지문이 맞지 않으면 false
+     */
+    private boolean readFile(long[] fingerprint) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                logger.warn("Unrecognized activity index file {}, rebuilding", file);
+                return false;
+            }
+            if (in.readLong() != fingerprint[0] || in.readLong() != fingerprint[1]) {
+                logger.info("Activity index {} is out of date, rebuilding", file);
+                return false;
+            }
+
+            TreeMap<Integer, long[]> loaded = new TreeMap<>();
+            int yearCount = in.readInt();
+            for (int i = 0; i < yearCount; i++) {
+                int year = in.readInt();
+                long[] words = new long[WORDS_PER_YEAR];
+                for (int w = 0; w < WORDS_PER_YEAR; w++) {
+                    words[w] = in.readLong();
+                }
+                loaded.put(year, words);
+            }
+            years.clear();
+            years.putAll(loaded);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            logger.warn("Failed to read activity index {}, rebuilding", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * 날짜 p 에서 거꾸로 이어지는 연속 작성일 - p 이하 비트 중 가장 높은 0 비트까지의 거리를 워드 단위로 계산
+     */
+    private int runEndingAt(LocalDate date) {
+        int run = 0;
+        int year = date.getYear();
+        int pos = date.getDayOfYear() - 1;
+
+        while (true) {
+            long[] words = years.get(year);
+            if (words == null) {
+                return run;
+            }
+            while (pos >= 0) {
+                int offset = pos & 63;
+                long zeros = ~words[pos >>> 6] & ((2L << offset) - 1);
+                if (zeros != 0) {
+                    return run + offset - (63 - Long.numberOfLeadingZeros(zeros));
+                }
+                run += offset + 1;
+                pos -= offset + 1;
+            }
+            year--;
+            pos = Year.of(year).length() - 1;
+        }
+    }
+
+    /**
+     * DB 에서 기간 내 작성일을 읽어 비트 설정
+     *
+     * @return 읽은 작성일 수
+     */
+    private int loadActiveDays(long fromEpochDay, long toEpochDay) throws SQLException {
+        int days = 0;
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ACTIVE_DAYS_SQL)) {
+            stmt.setLong(1, fromEpochDay);
+            stmt.setLong(2, toEpochDay);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    markActive(rs.getLong(1));
+                    days++;
+                }
+            }
+        }
+        return days;
+    }
+
+    private long[] queryFingerprint() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(FINGERPRINT_SQL)) {
+            return rs.next() ? new long[] {rs.getLong(1), rs.getLong(2)} : new long[] {0, 0};
+        }
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 정적 자원 미리 압축 (빌드 시 실행)
+ *
+ * 텍스트 형식의 정적 자원마다 최대 압축 수준의 .gz 파일을 만들어 두면 CompressionFilter 가 요청마다 압축하지 않고 그대로 보냅니다.
+ * 압축해도 작아지지 않는 파일은 건너뜁니다.
+ *
+ * 사용법: AssetPrecompressor &lt;자원 디렉토리&gt; &lt;출력 디렉토리&gt;
+ */
+public class AssetPrecompressor {
+    private static final Set<String> EXTENSIONS = Set.of("js", "css", "svg", "html", "json", "txt");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("사용법: AssetPrecompressor <자원 디렉토리> <출력 디렉토리>");
+            System.exit(1);
+        }
+        Path sourceDir = Paths.get(args[0]);
+        Path outputDir = Paths.get(args[1]);
+        if (!Files.isDirectory(sourceDir)) {
+            System.out.println("자원 디렉토리 없음, 건너뜀: " + sourceDir);
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(sourceDir)) {
+            files = walk.filter(Files::isRegularFile).filter(AssetPrecompressor::isCompressible).collect(Collectors.toList());
+        }
+
+        int written = 0;
+        long originalTotal = 0;
+        long compressedTotal = 0;
+        for (Path file : files) {
+            byte[] original = Files.readAllBytes(file);
+            byte[] compressed = gzip(original);
+            if (compressed.length >= original.length) {
+                continue;
+            }
+            Path target = outputDir.resolve(sourceDir.relativize(file).toString() + ".gz");
+            Files.createDirectories(target.getParent());
+            Files.write(target, compressed);
+            written++;
+            originalTotal += original.length;
+            compressedTotal += compressed.length;
+        }
+        System.out.printf("정적 자원 미리 압축 완료 - %d/%d 파일, %d -> %d bytes%n",
+            written, files.size(), originalTotal, compressedTotal);
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,468 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQLite 커넥션 풀
+ *
+ * 물리 커넥션은 최초 생성 시 한 번만 PRAGMA 설정을 수행하고,
+ * 커넥션마다 PreparedStatement 캐시를 유지합니다.
+ * 호출자가 받는 Connection 은 프록시이며 close() 시 풀로 반환됩니다.
+ *
+ * readOnly 풀은 WAL 읽기 전용 커넥션만 생성하며, 쓰기는 openWriterConnection() 으로 연 단일 쓰기 커넥션이 담당합니다.
+ * 모든 커넥션은 busy_timeout 동안 잠금 해제를 기다린 후에야 SQLITE_BUSY 를 반환합니다.
+ */
+public class ConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    // 커넥션당 캐시할 PreparedStatement 최대 개수
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private static final int DEFAULT_BUSY_TIMEOUT_MILLIS = 5000;
+
+    // auto_vacuum 은 테이블이 없는 새 DB 에서만 적용되므로 WAL 전환보다 먼저 설정
+    private static final String[] WRITER_PRAGMAS = {
+        "PRAGMA auto_vacuum = INCREMENTAL",
+        "PRAGMA foreign_keys = ON",
+        "PRAGMA journal_mode = WAL",
+        "PRAGMA synchronous = NORMAL",
+        "PRAGMA cache_size = 1000",
+        "PRAGMA temp_store = MEMORY"
+    };
+
+    // journal_mode 는 DB 파일에 기록되므로 읽기 전용 커넥션에서는 설정하지 않음 (쓰기 커넥션이 WAL 로 전환)
+    private static final String[] READER_PRAGMAS = {
+        "PRAGMA cache_size = 1000",
+        "PRAGMA temp_store = MEMORY"
+    };
+
+    private final String dbUrl;
+    private final int maxConnections;
+    private final long acquireTimeoutMillis;
+    private final boolean readOnly;
+    private final int busyTimeoutMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PhysicalConnection> idleConnections = new LinkedBlockingDeque<>();
+    private volatile boolean closed;
+
+    // 풀 지표
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger physicalCount = new AtomicInteger();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireTimeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    public ConnectionPool(String dbUrl, int maxConnections, long acquireTimeoutMillis) {
+        this(dbUrl, maxConnections, acquireTimeoutMillis, false, DEFAULT_BUSY_TIMEOUT_MILLIS);
+    }
+
+    public ConnectionPool(String dbUrl, int maxConnections, long acquireTimeoutMillis,
+                          boolean readOnly, int busyTimeoutMillis) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+        }
+        this.dbUrl = dbUrl;
+        this.maxConnections = maxConnections;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.readOnly = readOnly;
+        this.busyTimeoutMillis = Math.max(0, busyTimeoutMillis);
+        this.permits = new Semaphore(maxConnections, true);
+        logger.info("Connection pool created: url={}, max={}, timeout={}ms, readOnly={}, busyTimeout={}ms",
+                    dbUrl, maxConnections, acquireTimeoutMillis, readOnly, this.busyTimeoutMillis);
+    }
+
+    /**
+     * 풀에서 커넥션 획득 (최대 acquireTimeout 만큼 대기)
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        if (!acquired) {
+            acquireTimeoutCount.increment();
+            throw new SQLTimeoutException(String.format(
+                "Timed out after %dms waiting for a database connection (active=%d, max=%d)",
+                acquireTimeoutMillis, activeCount.get(), maxConnections));
+        }
+
+        try {
+            PhysicalConnection physical = idleConnections.pollFirst();
+            if (physical == null || !physical.isUsable()) {
+                if (physical != null) {
+                    discard(physical);
+                }
+                physical = openPhysicalConnection(readOnly);
+            }
+
+            activeCount.incrementAndGet();
+            acquireCount.increment();
+            return physical.lease(false);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 풀과 별개인 전용 쓰기 커넥션 생성 (PreparedStatement 캐시는 동일하게 적용)
+     * 트랜잭션은 BEGIN IMMEDIATE 로 시작하여 쓰기 잠금 대기를 busy_timeout 으로 처리하며,
+     * close() 시 풀로 반환되지 않고 실제로 닫힘
+     */
+    public Connection openWriterConnection() throws SQLException {
+        return openPhysicalConnection(false).lease(true);
+    }
+
+    /**
+     * 새 물리 커넥션 생성 및 PRAGMA 설정 (커넥션당 1회)
+     */
+    private PhysicalConnection openPhysicalConnection(boolean readOnlyConnection) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(busyTimeoutMillis);
+        if (readOnlyConnection) {
+            config.setReadOnly(true);
+        } else {
+            config.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        }
+
+        Connection conn = config.createConnection(dbUrl);
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : readOnlyConnection ? READER_PRAGMAS : WRITER_PRAGMAS) {
+                stmt.execute(pragma);
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+
+        int count = physicalCount.incrementAndGet();
+        logger.debug("Opened {} physical connection #{}", readOnlyConnection ? "read-only" : "writable", count);
+        return new PhysicalConnection(conn);
+    }
+
+    /**
+     * 커넥션 반환 처리
+     */
+    private void release(PhysicalConnection physical) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || !physical.resetForReuse()) {
+                discard(physical);
+            } else {
+                idleConnections.offerFirst(physical);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PhysicalConnection physical) {
+        physicalCount.decrementAndGet();
+        physical.closeQuietly();
+    }
+
+    /**
+     * 풀 종료 - 유휴 커넥션을 모두 닫음
+     */
+    public void close() {
+        closed = true;
+        PhysicalConnection physical;
+        while ((physical = idleConnections.pollFirst()) != null) {
+            discard(physical);
+        }
+        logger.info("Connection pool closed: {}", getStats());
+    }
+
+    /**
+     * 풀 지표 조회
+     */
+    public PoolStats getStats() {
+        PoolStats stats = new PoolStats();
+        stats.maxConnections = maxConnections;
+        stats.activeConnections = activeCount.get();
+        stats.idleConnections = idleConnections.size();
+        stats.totalConnections = physicalCount.get();
+        stats.acquireCount = acquireCount.sum();
+        stats.acquireTimeouts = acquireTimeoutCount.sum();
+        stats.averageWaitMillis = stats.acquireCount > 0
+            ? totalWaitNanos.sum() / (double) stats.acquireCount / 1_000_000.0 : 0.0;
+        stats.maxWaitMillis = maxWaitNanos.get() / 1_000_000.0;
+        stats.statementCacheHits = statementCacheHits.sum();
+        stats.statementCacheMisses = statementCacheMisses.sum();
+        return stats;
+    }
+
+    /**
+     * 물리 커넥션과 해당 커넥션의 PreparedStatement 캐시
+     */
+    private class PhysicalConnection {
+        private final Connection connection;
+        private final Map<String, CachedStatement> statementCache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() > STATEMENT_CACHE_SIZE && !eldest.getValue().inUse) {
+                        eldest.getValue().closeQuietly();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+        PhysicalConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection lease(boolean dedicated) {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new LeasedConnectionHandler(this, dedicated));
+        }
+
+        boolean isUsable() {
+            try {
+                return !connection.isClosed();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * 반환 전 트랜잭션 상태 정리. 재사용 불가하면 false
+         */
+        boolean resetForReuse() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                for (CachedStatement cached : statementCache.values()) {
+                    if (cached.inUse) {
+                        cached.recycle();
+                    }
+                }
+                return true;
+            } catch (SQLException e) {
+                logger.warn("Discarding connection that could not be reset", e);
+                return false;
+            }
+        }
+
+        PreparedStatement prepareCached(String sql) throws SQLException {
+            CachedStatement cached = statementCache.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.increment();
+            } else if (cached == null) {
+                statementCacheMisses.increment();
+                cached = new CachedStatement(connection.prepareStatement(sql));
+                statementCache.put(sql, cached);
+            } else {
+                // 같은 SQL 이 이미 사용 중이면 캐시하지 않는 일회용 Statement 반환
+                statementCacheMisses.increment();
+                return connection.prepareStatement(sql);
+            }
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        void closeQuietly() {
+            Iterator<CachedStatement> it = statementCache.values().iterator();
+            while (it.hasNext()) {
+                it.next().closeQuietly();
+                it.remove();
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing physical connection", e);
+            }
+        }
+    }
+
+    /**
+     * 대여된 커넥션 프록시 - close() 시 풀로 반환(전용 커넥션은 닫음), prepareStatement(String) 은 캐시 사용
+     */
+    private class LeasedConnectionHandler implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private final boolean dedicated;
+        private boolean released;
+
+        LeasedConnectionHandler(PhysicalConnection physical, boolean dedicated) {
+            this.physical = physical;
+            this.dedicated = dedicated;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        if (dedicated) {
+                            discard(physical);
+                        } else {
+                            release(physical);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return released || physical.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.connection + "]";
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if ("prepareStatement".equals(name) && args != null && args.length == 1) {
+                return physical.prepareCached((String) args[0]);
+            }
+
+            try {
+                return method.invoke(physical.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 캐시된 PreparedStatement - close() 시 실제로 닫지 않고 ResultSet 정리 후 재사용
+     */
+    private static class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private ResultSet openResultSet;
+        private boolean inUse;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    recycle();
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet) {
+                    openResultSet = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * ResultSet 을 닫아 statement 를 reset 하고 바인딩을 지움
+         */
+        void recycle() throws SQLException {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            if (openResultSet != null) {
+                openResultSet.close();
+                openResultSet = null;
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing cached statement", e);
+            }
+        }
+    }
+
+    /**
+     * 커넥션 풀 지표 클래스
+     */
+    public static class PoolStats {
+        public int maxConnections;
+        public int activeConnections;
+        public int idleConnections;
+        public int totalConnections;
+        public long acquireCount;
+        public long acquireTimeouts;
+        public double averageWaitMillis;
+        public double maxWaitMillis;
+        public long statementCacheHits;
+        public long statementCacheMisses;
+
+        @Override
+        public String toString() {
+            return String.format(
+                "PoolStats{active=%d, idle=%d, total=%d/%d, acquired=%d, timeouts=%d, avgWait=%.2fms, maxWait=%.2fms, stmtCache=%d/%d}",
+                activeConnections, idleConnections, totalConnections, maxConnections, acquireCount,
+                acquireTimeouts, averageWaitMillis, maxWaitMillis,
+                statementCacheHits, statementCacheHits + statementCacheMisses);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 데이터 버전 - 쓰기가 커밋될 때마다 증가하는 메모리 내 카운터
+ *
+ * 조회 결과 캐시와 HTTP 조건부 요청(ETag)의 기준으로 사용하며, 값을 확인하는 데 DB 접근이 필요 없습니다.
+ * 카운터는 재시작하면 0 부터 다시 시작하므로 태그에 프로세스 시작 시각을 함께 넣어 이전 실행의 태그와 구분합니다.
+ */
+public class DataVersion {
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 데이터 변경 알림 (커밋 후 또는 파생 데이터 갱신 후 호출)
+     */
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public long get() {
+        return version.get();
+    }
+
+    /**
+     * 현재 버전 태그 ("시작시각-버전", 36진수)
+     */
+    public String getTag() {
+        return Long.toString(startedAt, 36) + "-" + Long.toString(version.get(), 36);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DataVersion{version=%d, startedAt=%d}", version.get(), startedAt);
+    }
+}
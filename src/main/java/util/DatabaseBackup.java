@@ -0,0 +1,216 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * SQLite 온라인 백업
+ *
+ * sqlite3_backup API 로 몇 페이지씩 나누어 복사하고 단계 사이에 잠시 쉬므로 백업 중에도 읽기/쓰기가 계속 진행됩니다.
+ * 임시 파일에 백업한 뒤 단일 파일(journal_mode = DELETE)로 전환하고 integrity_check 로 검증이 끝나면 최종 경로로 옮기며,
+ * 결과(실제 파일 크기, 소요 시간)는 backup_log 에 기록합니다.
+ */
+public class DatabaseBackup {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseBackup.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS");
+
+    // 잠금 경합 시 백업 단계 재시도 (대기 시간, 최대 횟수)
+    private static final int BUSY_SLEEP_MILLIS = 100;
+    private static final int BUSY_MAX_RETRIES = 50;
+
+    private static final String INSERT_LOG_SQL =
+        "INSERT INTO backup_log (backup_path, backup_size, created_at, status, duration_ms) VALUES (?, ?, ?, ?, ?)";
+
+    private final ConnectionPool connectionPool;
+    private final GroupCommitWriter writer;
+    private final Path backupDir;
+    private final int pagesPerStep;
+    private final long stepPauseMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    public DatabaseBackup(ConnectionPool connectionPool, GroupCommitWriter writer, Path backupDir,
+                          int pagesPerStep, long stepPauseMillis) {
+        this.connectionPool = connectionPool;
+        this.writer = writer;
+        this.backupDir = backupDir;
+        this.pagesPerStep = Math.max(1, pagesPerStep);
+        this.stepPauseMillis = Math.max(0, stepPauseMillis);
+    }
+
+    /**
+     * 백업 실행 - 새 파일 생성, 검증, backup_log 기록 (동시에 한 번만 실행)
+     */
+    public synchronized BackupResult backup() {
+        BackupResult result = new BackupResult();
+        result.path = backupDir.resolve("mindiary_backup_" + LocalDateTime.now().format(FILE_TIMESTAMP_FORMAT) + ".db");
+        Path tempPath = result.path.resolveSibling(result.path.getFileName() + ".tmp");
+        long start = System.currentTimeMillis();
+
+        try {
+            Files.createDirectories(backupDir);
+            Files.deleteIfExists(tempPath);
+
+            copyOnline(tempPath, result);
+            verify(tempPath);
+            Files.move(tempPath, result.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            result.sizeBytes = Files.size(result.path);
+            result.success = true;
+        } catch (SQLException | IOException e) {
+            result.error = e.getMessage();
+            logger.error("Database backup to {} failed", result.path, e);
+            deleteQuietly(tempPath);
+            deleteQuietly(tempPath.resolveSibling(tempPath.getFileName() + "-wal"));
+            deleteQuietly(tempPath.resolveSibling(tempPath.getFileName() + "-shm"));
+        }
+
+        result.durationMillis = System.currentTimeMillis() - start;
+        logBackup(result);
+        if (result.success) {
+            logger.info("Database backup created: {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * 읽기 커넥션에서 pagesPerStep 페이지씩 복사 - 단계마다 stepPauseMillis 만큼 쉬어 쓰기 작업에 양보
+     */
+    private void copyOnline(Path target, BackupResult result) throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            SQLiteConnection sqliteConn = conn.unwrap(SQLiteConnection.class);
+            int rc = sqliteConn.getDatabase().backup("main", target.toString(), (remaining, pageCount) -> {
+                result.pageCount = pageCount;
+                if (remaining > 0 && stepPauseMillis > 0) {
+                    try {
+                        Thread.sleep(stepPauseMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, BUSY_SLEEP_MILLIS, BUSY_MAX_RETRIES, pagesPerStep);
+
+            if (rc != 0) {
+                throw new SQLException("Online backup did not complete (result code " + rc + ")");
+            }
+        }
+    }
+
+    /**
+     * 백업 파일을 WAL 없이 단독으로 열 수 있도록 전환하고 integrity_check 수행
+     * (FTS5 색인 검증에 쓰기 권한이 필요하므로 읽기 전용으로 열지 않음)
+     */
+    private void verify(Path backupFile) throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + backupFile);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = DELETE");
+            try (ResultSet rs = stmt.executeQuery("PRAGMA integrity_check")) {
+                String first = rs.next() ? rs.getString(1) : null;
+                if (!"ok".equals(first)) {
+                    throw new SQLException("Backup integrity check failed: " + first);
+                }
+            }
+        }
+    }
+
+    /**
+     * 백업 로그 기록
+     */
+    private void logBackup(BackupResult result) {
+        try {
+            writer.execute(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_LOG_SQL)) {
+                    stmt.setString(1, result.path.toString());
+                    stmt.setLong(2, result.sizeBytes);
+                    stmt.setString(3, LocalDateTime.now().format(TIMESTAMP_FORMAT));
+                    stmt.setString(4, result.success ? "SUCCESS" : "FAILED");
+                    stmt.setLong(5, result.durationMillis);
+                    return stmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            logger.error("Failed to log backup operation", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete incomplete backup {}", path, e);
+        }
+    }
+
+    /**
+     * 주기적 백업 시작 (첫 백업은 한 주기 후) - enabled 가 false 를 반환하는 주기는 건너뜀
+     */
+    public synchronized void schedule(long intervalMillis, BooleanSupplier enabled) {
+        if (scheduler != null || intervalMillis <= 0) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "database-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            if (enabled.getAsBoolean()) {
+                backup();
+            } else {
+                logger.debug("Scheduled backup skipped (disabled)");
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Scheduled database backups every {} minutes to {}",
+                    TimeUnit.MILLISECONDS.toMinutes(intervalMillis), backupDir.toAbsolutePath());
+    }
+
+    /**
+     * 예약된 백업 중지
+     */
+    public synchronized void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    /**
+     * 백업 결과 클래스
+     */
+    public static class BackupResult {
+        public Path path;
+        public boolean success;
+        public long sizeBytes;
+        public long durationMillis;
+        public int pageCount;
+        public String error;
+
+        @Override
+        public String toString() {
+            return String.format("BackupResult{path=%s, success=%s, size=%dB, pages=%d, duration=%dms%s}",
+                                 path, success, sizeBytes, pageCount, durationMillis,
+                                 error != null ? ", error=" + error : "");
+        }
+    }
+}
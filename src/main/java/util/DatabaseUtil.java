@@ -4,23 +4,59 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.io.InputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DatabaseUtil {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseUtil.class);
     
     // 데이터베이스 설정
     private static final String DEFAULT_DB_URL = "jdbc:sqlite:mindiary.db";
-    private static final String BACKUP_DB_PATH = "mindiary_backup.db";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     // 데이터베이스 연결 풀 설정
     private static final int MAX_CONNECTIONS = 10;
     private static final int CONNECTION_TIMEOUT = 30; // seconds
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    private static final int STREAM_FETCH_SIZE = 256;
+    
+    // 마이그레이션 backfill 배치 설정
+    private static final int MIGRATION_BATCH_SIZE = 500;
+    private static final int MIGRATION_BATCH_PAUSE_MILLIS = 50;
+    
+    // 그룹 커밋 설정
+    private static final int WRITER_MAX_BATCH_SIZE = 64;
+    private static final int WRITER_MAX_LINGER_MILLIS = 5;
+    private static final int WRITER_BUSY_RETRIES = 5;
+    private static final int WRITER_EXECUTE_TIMEOUT_MILLIS = (int) GroupCommitWriter.DEFAULT_EXECUTE_TIMEOUT_MILLIS;
+    
+    // 온라인 백업 설정
+    private static final String BACKUP_DIR = ".";
+    private static final int BACKUP_PAGES_PER_STEP = 64;
+    private static final int BACKUP_STEP_PAUSE_MILLIS = 10;
+    private static final int BACKUP_INTERVAL_HOURS = 24;
+    
+    // 보존 기간 정리 설정
+    private static final int RETENTION_CHUNK_SIZE = 500;
+    private static final int RETENTION_ROWS_PER_SECOND = 2000;
+    private static final int RETENTION_PAUSE_MILLIS = 20;
+    private static final int RETENTION_DAYS = 0; // 0 이면 주기적 정리 안 함
+    private static final int RETENTION_INTERVAL_HOURS = 24;
+    private static final int RETENTION_INITIAL_DELAY_MINUTES = 10;
     
     // 싱글톤 인스턴스
     private static DatabaseUtil instance;
@@ -30,6 +66,30 @@ public class DatabaseUtil {
     private Properties dbProperties;
     private String dbUrl;
     
+    // 읽기 전용 커넥션 풀 (쓰기는 모두 writer 로 직렬화)
+    private ConnectionPool connectionPool;
+    private int streamFetchSize;
+    
+    // 기간 분할 통계 집계용 ForkJoin 풀
+    private ForkJoinPool statsPool;
+    
+    // 스키마 마이그레이션
+    private SchemaMigrator schemaMigrator;
+    
+    // 그룹 커밋 쓰기 파이프라인
+    private GroupCommitWriter writer;
+    
+    // 온라인 백업
+    private DatabaseBackup databaseBackup;
+    
+    // 보존 기간 정리 (주기 실행과 관리 명령이 같은 백그라운드 스레드를 사용)
+    private RetentionPurge retentionPurge;
+    private ScheduledExecutorService retentionExecutor;
+    private final AtomicBoolean retentionRunning = new AtomicBoolean();
+    
+    // 날짜별 작성 여부 색인
+    private ActivityIndex activityIndex;
+    
     /**
      * 싱글톤 인스턴스 반환
      */
@@ -57,7 +117,12 @@ public class DatabaseUtil {
     private void initialize() {
         try {
             loadDatabaseProperties();
+            createConnectionPool();
+            createWriter();
             setupDatabase();
+            setupActivityIndex();
+            setupBackup();
+            setupRetentionPurge();
             logger.info("DatabaseUtil initialized successfully");
         } catch (Exception e) {
             logger.error("Failed to initialize DatabaseUtil", e);
@@ -97,6 +162,54 @@ public class DatabaseUtil {
         dbProperties.setProperty("db.driver", "org.sqlite.JDBC");
         dbProperties.setProperty("db.maxConnections", String.valueOf(MAX_CONNECTIONS));
         dbProperties.setProperty("db.connectionTimeout", String.valueOf(CONNECTION_TIMEOUT));
+        dbProperties.setProperty("db.busyTimeoutMillis", String.valueOf(BUSY_TIMEOUT_MILLIS));
+    }
+    
+    /**
+     * 설정값으로 읽기 전용 커넥션 풀 생성
+     */
+    private void createConnectionPool() {
+        int maxConnections = parseIntProperty("db.maxConnections", MAX_CONNECTIONS);
+        int timeoutSeconds = parseIntProperty("db.connectionTimeout", CONNECTION_TIMEOUT);
+        int busyTimeoutMillis = parseIntProperty("db.busyTimeoutMillis", BUSY_TIMEOUT_MILLIS);
+        connectionPool = new ConnectionPool(dbUrl, maxConnections, timeoutSeconds * 1000L, true, busyTimeoutMillis);
+        streamFetchSize = Math.max(1, parseIntProperty("db.streamFetchSize", STREAM_FETCH_SIZE));
+        
+        // 집계 작업마다 읽기 커넥션을 하나씩 쓰므로 기본값은 코어 수와 풀 크기의 절반 중 작은 값
+        int defaultParallelism = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), maxConnections / 2));
+        int statsParallelism = Math.max(1, parseIntProperty("db.statsParallelism", defaultParallelism));
+        statsPool = new ForkJoinPool(statsParallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("stats-aggregator-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+    
+    private int parseIntProperty(String key, int defaultValue) {
+        String value = dbProperties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value for {}: {}, using {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * 전용 쓰기 커넥션으로 그룹 커밋 쓰기 파이프라인 생성
+     * (DB 파일 생성과 WAL 전환도 이 커넥션이 담당하므로 읽기 커넥션보다 먼저 연다)
+     */
+    private void createWriter() throws SQLException {
+        int maxBatchSize = parseIntProperty("db.writer.maxBatchSize", WRITER_MAX_BATCH_SIZE);
+        int maxLingerMillis = parseIntProperty("db.writer.maxLingerMillis", WRITER_MAX_LINGER_MILLIS);
+        int busyRetries = parseIntProperty("db.writer.busyRetries", WRITER_BUSY_RETRIES);
+        int executeTimeoutMillis = parseIntProperty("db.writer.executeTimeoutMillis", WRITER_EXECUTE_TIMEOUT_MILLIS);
+        writer = new GroupCommitWriter(connectionPool.openWriterConnection(), maxBatchSize, maxLingerMillis, busyRetries,
+                                       executeTimeoutMillis);
     }
     
     /**
@@ -105,7 +218,7 @@ public class DatabaseUtil {
     private void setupDatabase() {
         try {
             createDatabaseIfNotExists();
-            createTablesIfNotExist();
+            runMigrations();
             insertDefaultDataIfNeeded();
         } catch (SQLException e) {
             logger.error("Error setting up database", e);
@@ -114,63 +227,97 @@ public class DatabaseUtil {
     }
     
     /**
-     * 데이터베이스 파일 생성 (존재하지 않는 경우)
+     * 작성일 색인 로드 (DB 파일 옆 .activity 파일, 메모리 DB 는 저장하지 않음)
+     * created_day backfill(V4) 이 진행 중이면 파일은 쓰지 않고, backfill 이 끝날 때 다시 생성해 저장
      */
-    private void createDatabaseIfNotExists() throws SQLException {
-        try (Connection conn = DriverManager.getConnection(dbUrl)) {
-            logger.info("Database file verified/created: {}", dbUrl);
+    private void setupActivityIndex() throws SQLException {
+        Path indexFile = null;
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA database_list")) {
+            while (rs.next()) {
+                String dbFile = rs.getString("file");
+                if ("main".equals(rs.getString("name")) && dbFile != null && !dbFile.isEmpty()) {
+                    indexFile = Path.of(dbFile + ".activity");
+                }
+            }
         }
+        activityIndex = new ActivityIndex(connectionPool, indexFile);
+        if (schemaMigrator.isBackfillComplete(SchemaMigrations.CREATED_DAY_VERSION)) {
+            activityIndex.load();
+            return;
+        }
+        activityIndex.loadPartial();
+        schemaMigrator.onBackfillComplete(SchemaMigrations.CREATED_DAY_VERSION, () -> {
+            try {
+                activityIndex.rebuild();
+            } catch (SQLException e) {
+                logger.error("Failed to rebuild activity index after created_day backfill", e);
+            }
+        });
     }
     
     /**
-     * 필요한 테이블들 생성
+     * 온라인 백업 설정 및 주기적 백업 예약 (db.backup.intervalHours 가 0 이면 예약하지 않음)
      */
-    private void createTablesIfNotExist() throws SQLException {
-        String[] createTableSQLs = {
-            // 일기 테이블
-            """
-            CREATE TABLE IF NOT EXISTS diary (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                content TEXT NOT NULL,
-                emotion_summary TEXT,
-                created_at TEXT NOT NULL,
-                updated_at TEXT NOT NULL
-            )
-            """,
-            
-            // 사용자 설정 테이블 (향후 확장용)
-            """
-            CREATE TABLE IF NOT EXISTS user_settings (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                setting_key TEXT UNIQUE NOT NULL,
-                setting_value TEXT,
-                created_at TEXT NOT NULL,
-                updated_at TEXT NOT NULL
-            )
-            """,
-            
-            // 백업 로그 테이블
-            """
-            CREATE TABLE IF NOT EXISTS backup_log (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                backup_path TEXT NOT NULL,
-                backup_size INTEGER,
-                created_at TEXT NOT NULL,
-                status TEXT DEFAULT 'SUCCESS'
-            )
-            """
-        };
+    private void setupBackup() {
+        Path backupDir = Path.of(dbProperties.getProperty("db.backup.dir", BACKUP_DIR));
+        int pagesPerStep = parseIntProperty("db.backup.pagesPerStep", BACKUP_PAGES_PER_STEP);
+        int stepPauseMillis = parseIntProperty("db.backup.stepPauseMillis", BACKUP_STEP_PAUSE_MILLIS);
+        int intervalHours = parseIntProperty("db.backup.intervalHours", BACKUP_INTERVAL_HOURS);
         
+        databaseBackup = new DatabaseBackup(connectionPool, writer, backupDir, pagesPerStep, stepPauseMillis);
+        databaseBackup.schedule(intervalHours * 3_600_000L,
+                                () -> Boolean.parseBoolean(getSetting("backup_enabled", "true")));
+    }
+    
+    /**
+     * 보존 기간 정리 작업 설정 및 주기적 정리 예약
+     * (db.retention.days 일이 지난 일기를 db.retention.intervalHours 마다 삭제, days 가 0 이면 예약하지 않음)
+     */
+    private void setupRetentionPurge() {
+        int chunkSize = parseIntProperty("db.retention.chunkSize", RETENTION_CHUNK_SIZE);
+        int rowsPerSecond = parseIntProperty("db.retention.rowsPerSecond", RETENTION_ROWS_PER_SECOND);
+        int pauseMillis = parseIntProperty("db.retention.pauseMillis", RETENTION_PAUSE_MILLIS);
+        int retentionDays = parseIntProperty("db.retention.days", RETENTION_DAYS);
+        int intervalHours = parseIntProperty("db.retention.intervalHours", RETENTION_INTERVAL_HOURS);
+        retentionPurge = new RetentionPurge(connectionPool, writer, chunkSize, rowsPerSecond, pauseMillis);
+        
+        retentionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retention-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (retentionDays > 0 && intervalHours > 0) {
+            // 재시작이 잦아도 정리가 밀리지 않도록 첫 실행은 주기가 아니라 시작 후 잠시 뒤 (시작 직후의 backfill 을 피함)
+            retentionExecutor.scheduleWithFixedDelay(() -> runCleanupExclusively(retentionDays),
+                                                     TimeUnit.MINUTES.toMillis(RETENTION_INITIAL_DELAY_MINUTES),
+                                                     TimeUnit.HOURS.toMillis(intervalHours), TimeUnit.MILLISECONDS);
+            logger.info("Scheduled retention purge of diaries older than {} days every {} hours",
+                        retentionDays, intervalHours);
+        }
+    }
+    
+    /**
+     * 데이터베이스 파일 생성 (존재하지 않는 경우)
+     */
+    private void createDatabaseIfNotExists() throws SQLException {
         try (Connection conn = getConnection()) {
-            for (String sql : createTableSQLs) {
-                try (Statement stmt = conn.createStatement()) {
-                    stmt.execute(sql);
-                }
-            }
-            logger.info("All required tables created/verified");
+            logger.info("Database file verified/created: {}", dbUrl);
         }
     }
     
+    /**
+     * 스키마 마이그레이션 적용 (기존 행 backfill 은 백그라운드에서 진행)
+     */
+    private void runMigrations() throws SQLException {
+        int batchSize = parseIntProperty("db.migration.batchSize", MIGRATION_BATCH_SIZE);
+        int pauseMillis = parseIntProperty("db.migration.batchPauseMillis", MIGRATION_BATCH_PAUSE_MILLIS);
+        schemaMigrator = new SchemaMigrator(connectionPool, writer, SchemaMigrations.all(), batchSize, pauseMillis);
+        schemaMigrator.migrate();
+        logger.info("Schema migrated to version {}", schemaMigrator.getCurrentVersion());
+    }
+    
     /**
      * 기본 데이터 삽입 (필요한 경우)
      */
@@ -178,7 +325,7 @@ public class DatabaseUtil {
         String checkSQL = "SELECT COUNT(*) FROM user_settings WHERE setting_key = ?";
         String insertSQL = "INSERT INTO user_settings (setting_key, setting_value, created_at, updated_at) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = getConnection()) {
+        writer.execute(conn -> {
             String now = LocalDateTime.now().format(TIMESTAMP_FORMAT);
             
             // 기본 설정값들
@@ -207,32 +354,84 @@ public class DatabaseUtil {
             }
             
             logger.info("Default settings verified/inserted");
-        }
+            return null;
+        });
     }
     
     /**
-     * 데이터베이스 연결 반환
+     * 읽기 전용 데이터베이스 연결 반환 (커넥션 풀에서 대여, close() 시 반환)
+     * 쓰기는 getWriter() 로 제출해야 합니다.
      */
     public Connection getConnection() throws SQLException {
         try {
-            Connection conn = DriverManager.getConnection(dbUrl);
-            
-            // SQLite 최적화 설정
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute("PRAGMA foreign_keys = ON");
-                stmt.execute("PRAGMA journal_mode = WAL");
-                stmt.execute("PRAGMA synchronous = NORMAL");
-                stmt.execute("PRAGMA cache_size = 1000");
-                stmt.execute("PRAGMA temp_store = MEMORY");
-            }
-            
-            return conn;
+            return connectionPool.getConnection();
         } catch (SQLException e) {
             logger.error("Failed to get database connection", e);
             throw e;
         }
     }
     
+    /**
+     * 스트리밍 조회 시 한 번에 가져올 행 수
+     */
+    public int getStreamFetchSize() {
+        return streamFetchSize;
+    }
+    
+    /**
+     * 기간 분할 통계 집계용 ForkJoin 풀
+     */
+    public ForkJoinPool getStatsPool() {
+        return statsPool;
+    }
+    
+    /**
+     * 커넥션 풀 지표 조회
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return connectionPool.getStats();
+    }
+    
+    /**
+     * 그룹 커밋 쓰기 파이프라인 반환 (쓰기 작업은 writer.submit() 으로 제출)
+     */
+    public GroupCommitWriter getWriter() {
+        return writer;
+    }
+    
+    /**
+     * 읽기 전용 커넥션 풀 (ReanalysisJob 처럼 풀과 writer 를 직접 받는 작업용)
+     */
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+    
+    /**
+     * 데이터 버전 (모든 쓰기 커밋과 파생 데이터 갱신 시 증가)
+     */
+    public DataVersion getDataVersion() {
+        return writer.getDataVersion();
+    }
+    
+    /**
+     * 그룹 커밋 지표 조회
+     */
+    public GroupCommitWriter.WriterStats getWriterStats() {
+        return writer.getStats();
+    }
+    
+    /**
+     * 스키마 마이그레이션 및 backfill 진행 상황 조회
+     */
+    public List<SchemaMigrator.MigrationStatus> getMigrationStatus() {
+        try {
+            return schemaMigrator.getStatus();
+        } catch (SQLException e) {
+            logger.error("Failed to get migration status", e);
+            return List.of();
+        }
+    }
+    
     /**
      * 연결 테스트
      */
@@ -246,115 +445,127 @@ public class DatabaseUtil {
     }
     
     /**
-     * 데이터베이스 백업
+     * 데이터베이스 백업 (온라인 백업 후 검증, 결과는 backup_log 에 기록)
+     */
+    public DatabaseBackup.BackupResult backupDatabase() {
+        return databaseBackup.backup();
+    }
+    
+    /**
+     * 데이터베이스 정리 (오래된 데이터 삭제)
+     * id 구간 단위로 나누어 삭제하므로 실행 중에도 새 일기 저장이 계속 처리됩니다.
      */
-    public boolean backupDatabase() {
+    public int cleanupOldData(int daysToKeep) {
         try {
-            String backupPath = generateBackupPath();
-            String backupSQL = "BACKUP TO '" + backupPath + "'";
-            
-            try (Connection conn = getConnection();
-                 Statement stmt = conn.createStatement()) {
-                
-                // SQLite의 BACKUP 명령 사용 (SQLite 3.27.0+)
-                // 대안: 파일 복사 방식
-                return createFileBasedBackup(backupPath);
-            }
-        } catch (Exception e) {
-            logger.error("Database backup failed", e);
-            return false;
+            LocalDate cutoff = LocalDate.now().minusDays(daysToKeep);
+            long cutoffEpochDay = cutoff.toEpochDay();
+            long deletedCount = retentionPurge.purge(cutoffEpochDay);
+            activityIndex.refresh(Long.MIN_VALUE, cutoffEpochDay - 1);
+            // 키워드 스케치는 단어를 뺄 수 없으므로 보관 기간 밖으로 완전히 벗어난 달만 삭제
+            int cutoffMonth = cutoff.getYear() * 100 + cutoff.getMonthValue();
+            writer.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM keyword_sketches WHERE month < ?")) {
+                    pstmt.setInt(1, cutoffMonth);
+                    return pstmt.executeUpdate();
+                }
+            });
+            getDataVersion().bump();
+            logger.info("Cleaned up {} old diary entries (older than {} days)", deletedCount, daysToKeep);
+            return (int) deletedCount;
+        } catch (SQLException e) {
+            logger.error("Failed to cleanup old data", e);
+            return -1;
         }
     }
     
     /**
-     * 파일 기반 백업 생성
+     * 백그라운드 스레드에서 오래된 데이터 정리 시작 - 진행 상황은 getRetentionProgress 로 조회
+     *
+     * @return 이미 정리 중이면 false
      */
-    private boolean createFileBasedBackup(String backupPath) {
+    public boolean startCleanupOldData(int daysToKeep) {
+        if (!retentionRunning.compareAndSet(false, true)) {
+            return false;
+        }
         try {
-            // 현재 데이터베이스의 모든 데이터를 새 파일로 복사
-            String attachSQL = "ATTACH DATABASE ? AS backup_db";
-            String copyDataSQL = """
-                CREATE TABLE backup_db.diary AS SELECT * FROM main.diary;
-                CREATE TABLE backup_db.user_settings AS SELECT * FROM main.user_settings;
-                CREATE TABLE backup_db.backup_log AS SELECT * FROM main.backup_log;
-                """;
-            
-            try (Connection conn = getConnection()) {
-                // 백업 데이터베이스 연결
-                try (PreparedStatement attachStmt = conn.prepareStatement(attachSQL)) {
-                    attachStmt.setString(1, backupPath);
-                    attachStmt.execute();
+            retentionExecutor.execute(() -> {
+                try {
+                    cleanupOldData(daysToKeep);
+                } finally {
+                    retentionRunning.set(false);
                 }
-                
-                // 데이터 복사
-                try (Statement stmt = conn.createStatement()) {
-                    for (String sql : copyDataSQL.split(";")) {
-                        if (!sql.trim().isEmpty()) {
-                            stmt.execute(sql.trim());
-                        }
-                    }
-                }
-                
-                // 백업 로그 기록
-                logBackup(backupPath, true);
-                
-                logger.info("Database backup created successfully: {}", backupPath);
-                return true;
-            }
-        } catch (SQLException e) {
-            logger.error("File-based backup failed", e);
-            logBackup(backupPath, false);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            retentionRunning.set(false);
+            logger.warn("Retention purge not started: database is shutting down");
             return false;
         }
     }
     
     /**
-     * 백업 파일 경로 생성
+     * 정리 작업이 실행 중이거나 시작 대기 중인지
      */
-    private String generateBackupPath() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        return "mindiary_backup_" + timestamp + ".db";
+    public boolean isRetentionRunning() {
+        return retentionRunning.get() || retentionPurge.getStats().running;
     }
     
     /**
-     * 백업 로그 기록
+     * 주기 실행 - 관리 명령으로 시작한 정리가 진행 중이면 이번 주기는 건너뜀
      */
-    private void logBackup(String backupPath, boolean success) {
-        String insertSQL = "INSERT INTO backup_log (backup_path, backup_size, created_at, status) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
-            
-            stmt.setString(1, backupPath);
-            stmt.setLong(2, 0); // 파일 크기는 나중에 계산 가능
-            stmt.setString(3, LocalDateTime.now().format(TIMESTAMP_FORMAT));
-            stmt.setString(4, success ? "SUCCESS" : "FAILED");
-            
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            logger.error("Failed to log backup operation", e);
+    private void runCleanupExclusively(int daysToKeep) {
+        if (!retentionRunning.compareAndSet(false, true)) {
+            logger.info("Scheduled retention purge skipped (already running)");
+            return;
+        }
+        try {
+            cleanupOldData(daysToKeep);
+        } finally {
+            retentionRunning.set(false);
         }
     }
     
     /**
-     * 데이터베이스 정리 (오래된 데이터 삭제)
+     * 날짜별 작성 여부 색인 (연속 작성일, 작성일 수, 히트맵)
      */
-    public int cleanupOldData(int daysToKeep) {
-        String deleteSQL = "DELETE FROM diary WHERE DATE(created_at) < DATE('now', '-' || ? || ' days')";
+    public ActivityIndex getActivityIndex() {
+        return activityIndex;
+    }
+    
+    /**
+     * 진행 중인(또는 마지막) 정리 작업 상황 조회 - 실행된 적이 없으면 null
+     */
+    public RetentionPurge.PurgeProgress getRetentionProgress() {
+        return retentionPurge.getProgress();
+    }
+    
+    /**
+     * 누적 정리 지표 조회
+     */
+    public RetentionPurge.PurgeStats getRetentionStats() {
+        return retentionPurge.getStats();
+    }
+    
+    /**
+     * 쿼리 실행 계획 조회 (EXPLAIN QUERY PLAN 의 detail 컬럼 목록)
+     */
+    public List<String> explainQueryPlan(String sql, Object... params) throws SQLException {
+        List<String> plan = new ArrayList<>();
         
         try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(deleteSQL)) {
-            
-            stmt.setInt(1, daysToKeep);
-            int deletedCount = stmt.executeUpdate();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
             
-            logger.info("Cleaned up {} old diary entries (older than {} days)", deletedCount, daysToKeep);
-            return deletedCount;
-            
-        } catch (SQLException e) {
-            logger.error("Failed to cleanup old data", e);
-            return -1;
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString("detail"));
+                }
+            }
         }
+        
+        return plan;
     }
     
     /**
@@ -438,17 +649,18 @@ public class DatabaseUtil {
             VALUES (?, ?, COALESCE((SELECT created_at FROM user_settings WHERE setting_key = ?), ?), ?)
             """;
         
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(upsertSQL)) {
-            
+        try {
             String now = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            stmt.setString(1, key);
-            stmt.setString(2, value);
-            stmt.setString(3, key);
-            stmt.setString(4, now);
-            stmt.setString(5, now);
-            
-            return stmt.executeUpdate() > 0;
+            return writer.execute(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(upsertSQL)) {
+                    stmt.setString(1, key);
+                    stmt.setString(2, value);
+                    stmt.setString(3, key);
+                    stmt.setString(4, now);
+                    stmt.setString(5, now);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
             
         } catch (SQLException e) {
             logger.error("Failed to set setting: {} = {}", key, value, e);
@@ -461,7 +673,21 @@ public class DatabaseUtil {
      */
     public void shutdown() {
         try {
-            // SQLite는 별도 종료 작업이 필요하지 않음
+            databaseBackup.shutdown();
+            // 진행 중인 정리는 현재 구간까지 커밋하고 멈춤 (writer 보다 먼저 종료)
+            retentionExecutor.shutdownNow();
+            try {
+                if (!retentionExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    logger.warn("Retention purge did not stop within 10 seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            schemaMigrator.shutdown();
+            statsPool.shutdown();
+            writer.shutdown();
+            activityIndex.save();
+            connectionPool.close();
             logger.info("DatabaseUtil shutdown completed");
         } catch (Exception e) {
             logger.error("Error during database shutdown", e);
@@ -0,0 +1,48 @@
+package util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Deflater 재사용 풀
+ *
+ * Deflater 는 생성할 때마다 네이티브 메모리(zlib 상태)를 할당하므로 요청마다 만들지 않고 reset 하여 재사용합니다.
+ * 풀이 가득 차면 반환된 인스턴스는 즉시 end() 로 해제합니다.
+ */
+public class DeflaterPool {
+    private final int level;
+    private final boolean nowrap;
+    private final BlockingQueue<Deflater> idle;
+
+    /**
+     * @param nowrap true 면 헤더 없는 raw deflate (gzip 본문용), false 면 zlib 형식 (HTTP deflate)
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxIdle) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    public Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    public void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 보관 중인 인스턴스 해제
+     */
+    public void close() {
+        Deflater deflater;
+        while ((deflater = idle.poll()) != null) {
+            deflater.end();
+        }
+    }
+}
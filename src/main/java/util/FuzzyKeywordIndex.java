@@ -0,0 +1,218 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 편집 거리 기반 유사 키워드 색인 (문자별 키워드 목록 + 거리 상한이 있는 레벤슈타인)
+ *
+ * 유사도는 1 - 거리 / 긴 쪽 길이 이고, minSimilarity 보다 커야 일치로 봅니다. 긴 쪽 길이마다 허용 거리의
+ * 상한을 미리 계산해 두고, 거리가 d 이하인 두 단어는 적어도 (긴 쪽 길이 - d) 개의 문자를 공유하므로
+ * 단어의 문자로 키워드별 공유 문자 수를 센 뒤 길이 차이와 공유 문자 수를 통과한 키워드만 비교합니다.
+ * 비교 중에도 행의 최소값이 상한을 넘으면 바로 멈추고, 너무 긴 단어는 길이만 보고 건너뜁니다.
+ * 거리는 char 단위이며, 만든 뒤에는 읽기 전용이라 여러 스레드에서 함께 사용할 수 있습니다.
+ */
+public class FuzzyKeywordIndex {
+    private final char[][] keywords;
+    private final double minSimilarity;
+    // 문자 (정렬) -> 그 문자가 들어간 키워드 번호 목록
+    private final char[] postingChars;
+    private final int[][] postings;
+    private final int maxKeywordLength;
+    // 긴 쪽 길이 -> 유사도 기준을 넘는 최대 거리 (-1 이면 일치 불가)
+    private final int[] maxDistance;
+    private final int maxWordLength;
+    // 검색 중 쓰는 배열 (스레드별 재사용)
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * @param keywords 키워드 목록 (목록 순서가 키워드 번호)
+     * @param minSimilarity 이 값보다 유사도가 커야 일치 (0 초과 1 이하)
+     */
+    public FuzzyKeywordIndex(List<String> keywords, double minSimilarity) {
+        if (!(minSimilarity > 0 && minSimilarity <= 1)) {
+            throw new IllegalArgumentException("minSimilarity must be in (0, 1]: " + minSimilarity);
+        }
+        this.keywords = new char[keywords.size()][];
+        this.minSimilarity = minSimilarity;
+
+        int longest = 0;
+        for (int id = 0; id < keywords.size(); id++) {
+            this.keywords[id] = keywords.get(id).toCharArray();
+            longest = Math.max(longest, this.keywords[id].length);
+        }
+        this.maxKeywordLength = longest;
+
+        TreeMap<Character, List<Integer>> byChar = new TreeMap<>();
+        for (int id = 0; id < this.keywords.length; id++) {
+            for (char c : this.keywords[id]) {
+                List<Integer> ids = byChar.computeIfAbsent(c, key -> new ArrayList<>());
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+        postingChars = new char[byChar.size()];
+        postings = new int[byChar.size()][];
+        int index = 0;
+        for (Map.Entry<Character, List<Integer>> entry : byChar.entrySet()) {
+            postingChars[index] = entry.getKey();
+            postings[index] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            index++;
+        }
+
+        // 단어가 키워드보다 길면 거리 >= 길이 차이이므로, 가장 긴 키워드와도 유사할 수 없는 길이에서 멈춤
+        List<Integer> distances = new ArrayList<>();
+        for (int length = 0; ; length++) {
+            int distance = -1;
+            while (distance + 1 <= length && similarity(distance + 1, length) > minSimilarity) {
+                distance++;
+            }
+            if (length > longest && length - longest > distance) {
+                break;
+            }
+            distances.add(distance);
+        }
+        maxDistance = distances.stream().mapToInt(Integer::intValue).toArray();
+        maxWordLength = maxDistance.length - 1;
+        scratch = ThreadLocal.withInitial(() -> new Scratch(this.keywords.length, maxKeywordLength));
+    }
+
+    /**
+     * text[start, end) 단어와 유사한 키워드 검색
+     *
+     * @param ids 찾은 키워드 번호를 담을 배열 (키워드 수 이상)
+     * @param similarities 찾은 키워드의 유사도를 담을 배열 (키워드 수 이상)
+     * @return 찾은 키워드 수 (키워드 번호 순)
+     */
+    public int search(CharSequence text, int start, int end, int[] ids, double[] similarities) {
+        return search(text, start, end, ids, similarities, 0);
+    }
+
+    /**
+     * text[start, end) 단어와 유사한 키워드 검색 (결과를 ids/similarities 의 offset 부터 기록)
+     *
+     * @return 찾은 키워드 수 (키워드 번호 순)
+     */
+    public int search(CharSequence text, int start, int end, int[] ids, double[] similarities, int offset) {
+        int wordLength = end - start;
+        if (wordLength > maxWordLength) {
+            return 0;
+        }
+
+        // 키워드별 공유 문자 수 (단어에 같은 문자가 여러 번 있으면 넉넉하게 셈)
+        Scratch buffers = scratch.get();
+        int[] shared = buffers.shared;
+        int[] touched = buffers.touched;
+        int touchedCount = 0;
+        for (int i = start; i < end; i++) {
+            int index = Arrays.binarySearch(postingChars, text.charAt(i));
+            if (index >= 0) {
+                for (int id : postings[index]) {
+                    if (shared[id]++ == 0) {
+                        touched[touchedCount++] = id;
+                    }
+                }
+            }
+        }
+
+        int found = offset;
+        for (int t = 0; t < touchedCount; t++) {
+            int id = touched[t];
+            int sharedChars = shared[id];
+            shared[id] = 0;
+            int keywordLength = keywords[id].length;
+            int longer = Math.max(wordLength, keywordLength);
+            int limit = maxDistance[longer];
+            if (Math.abs(wordLength - keywordLength) > limit || sharedChars < longer - limit) {
+                continue;
+            }
+            int distance = boundedDistance(keywords[id], text, start, end, limit, buffers.previous, buffers.current);
+            if (distance <= limit) {
+                ids[found] = id;
+                similarities[found] = similarity(distance, longer);
+                found++;
+            }
+        }
+
+        // 문자 순서로 모았으므로 키워드 번호 순으로 정렬 (삽입 정렬, 결과는 보통 몇 개 안 됨)
+        for (int i = offset + 1; i < found; i++) {
+            int id = ids[i];
+            double value = similarities[i];
+            int j = i - 1;
+            for (; j >= offset && ids[j] > id; j--) {
+                ids[j + 1] = ids[j];
+                similarities[j + 1] = similarities[j];
+            }
+            ids[j + 1] = id;
+            similarities[j + 1] = value;
+        }
+        return found - offset;
+    }
+
+    public int getKeywordCount() {
+        return keywords.length;
+    }
+
+    /**
+     * 어떤 키워드와도 유사할 수 있는 최대 단어 길이
+     */
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    private static double similarity(int distance, int longer) {
+        return 1.0 - ((double) distance / longer);
+    }
+
+    /**
+     * 레벤슈타인 거리 (limit 를 넘으면 limit + 1)
+     */
+    private static int boundedDistance(char[] keyword, CharSequence text, int start, int end, int limit,
+                                       int[] previous, int[] current) {
+        int columns = keyword.length;
+        for (int j = 0; j <= columns; j++) {
+            previous[j] = j;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            current[0] = i - start + 1;
+            int rowMin = current[0];
+            for (int j = 1; j <= columns; j++) {
+                int cost = keyword[j - 1] == c ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[columns], limit + 1);
+    }
+
+    private static final class Scratch {
+        final int[] shared;
+        final int[] touched;
+        final int[] previous;
+        final int[] current;
+
+        Scratch(int keywordCount, int maxKeywordLength) {
+            shared = new int[keywordCount];
+            touched = new int[keywordCount];
+            previous = new int[maxKeywordLength + 1];
+            current = new int[maxKeywordLength + 1];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FuzzyKeywordIndex{keywords=%d, minSimilarity=%.2f, maxWordLength=%d}",
+                             keywords.length, minSimilarity, maxWordLength);
+    }
+}
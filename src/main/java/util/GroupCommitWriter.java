@@ -0,0 +1,450 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteErrorCode;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 그룹 커밋 쓰기 파이프라인
+ *
+ * 동시에 들어온 쓰기 작업을 큐에 모아 단일 쓰기 스레드가 배치마다 한 트랜잭션으로 커밋합니다.
+ * 배치는 maxBatchSize 개가 모이거나 첫 작업 이후 maxLingerMillis 가 지나면 커밋되며,
+ * 각 호출자의 Future 는 해당 배치가 디스크에 기록된 후에 완료됩니다 (쓰기 커넥션은 synchronous = FULL).
+ * 작업마다 SAVEPOINT 를 사용하므로 한 작업의 실패가 같은 배치의 다른 작업에 영향을 주지 않습니다.
+ *
+ * 모든 쓰기가 이 스레드 하나로 직렬화되므로 잠금 경합은 외부 프로세스와의 경합뿐이며,
+ * busy_timeout 이후에도 SQLITE_BUSY 가 발생하면 배치 전체를 지수 백오프로 재시도합니다.
+ * 작업에서 Error 가 나도 해당 배치만 실패시키고 계속 동작하며, 스레드가 어떤 이유로든 끝나면 남은 작업을 모두 실패 처리합니다.
+ */
+public class GroupCommitWriter {
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    // SQLITE_BUSY 재시도 백오프 (시도마다 2배, 최대값 제한)
+    private static final long BUSY_BACKOFF_BASE_MILLIS = 20;
+    private static final long BUSY_BACKOFF_MAX_MILLIS = 1000;
+    // execute() 가 커밋을 기다리는 기본 최대 시간
+    public static final long DEFAULT_EXECUTE_TIMEOUT_MILLIS = 120_000;
+
+    /**
+     * 쓰기 커넥션에서 실행할 작업
+     */
+    @FunctionalInterface
+    public interface WriteTask<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private final Connection connection;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final int maxBusyRetries;
+    private final long executeTimeoutMillis;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private final DataVersion dataVersion = new DataVersion();
+
+    // 쓰기 지표
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder writeCount = new LongAdder();
+    private final LongAdder failedWriteCount = new LongAdder();
+    private final AtomicLong maxBatch = new AtomicLong();
+    private final LongAdder totalCommitNanos = new LongAdder();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAdder busyRetryCount = new LongAdder();
+
+    public GroupCommitWriter(Connection connection, int maxBatchSize, long maxLingerMillis, int maxBusyRetries)
+            throws SQLException {
+        this(connection, maxBatchSize, maxLingerMillis, maxBusyRetries, DEFAULT_EXECUTE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param executeTimeoutMillis execute() 가 커밋을 기다리는 최대 시간 (0 이하면 제한 없음)
+     */
+    public GroupCommitWriter(Connection connection, int maxBatchSize, long maxLingerMillis, int maxBusyRetries,
+                             long executeTimeoutMillis) throws SQLException {
+        this.connection = connection;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLingerMillis));
+        this.maxBusyRetries = Math.max(0, maxBusyRetries);
+        this.executeTimeoutMillis = executeTimeoutMillis;
+
+        // 커밋마다 WAL 을 fsync 하여 Future 완료 시점에 내구성 보장 (배치당 fsync 1회)
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA synchronous = FULL");
+        }
+
+        this.writerThread = new Thread(this::runWriter, "group-commit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Group commit writer started: maxBatchSize={}, maxLinger={}ms", this.maxBatchSize, maxLingerMillis);
+    }
+
+    /**
+     * 쓰기 작업 제출 - 작업이 포함된 배치가 커밋되면 결과와 함께 완료
+     */
+    public <T> CompletableFuture<T> submit(WriteTask<T> task) {
+        return enqueue(task).future;
+    }
+
+    private <T> PendingWrite<T> enqueue(WriteTask<T> task) {
+        PendingWrite<T> pending = new PendingWrite<>(task);
+        if (!running) {
+            pending.future.completeExceptionally(new SQLException("Writer has been shut down"));
+            return pending;
+        }
+        queue.add(pending);
+        // 확인 직후 종료되어 writer 스레드와 shutdown 이 모두 놓친 작업은 여기서 실패 처리
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new SQLException("Writer has been shut down"));
+        }
+        return pending;
+    }
+
+    /**
+     * 쓰기 작업을 제출하고 커밋될 때까지 대기 (최대 executeTimeoutMillis)
+     * 제한 시간 안에 시작하지 못한 작업은 큐에서 빼므로 실행되지 않으며,
+     * 이미 실행 중이던 작업은 SQLTimeoutException 이후에도 커밋될 수 있습니다.
+     */
+    public <T> T execute(WriteTask<T> task) throws SQLException {
+        PendingWrite<T> pending = enqueue(task);
+        try {
+            return executeTimeoutMillis > 0
+                ? pending.future.get(executeTimeoutMillis, TimeUnit.MILLISECONDS)
+                : pending.future.get();
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                pending.future.completeExceptionally(e);
+                throw new SQLTimeoutException("Write was not started within " + executeTimeoutMillis + "ms", e);
+            }
+            throw new SQLTimeoutException("Write did not commit within " + executeTimeoutMillis
+                                          + "ms and may still be applied", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for write to commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Write task failed", e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        try {
+            processQueue();
+        } finally {
+            // 어떤 이유로든 스레드가 끝나면 새 작업을 받지 않고, 남은 작업이 영원히 대기하지 않도록 실패 처리
+            running = false;
+            List<PendingWrite<?>> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            failBatch(remaining, new SQLException("Writer has been shut down"));
+            logger.info("Group commit writer stopped: {}", getStats());
+        }
+    }
+
+    private void processQueue() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // 첫 작업 이후 linger 시간 동안 추가 작업 수집
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException | Error e) {
+                // 작업의 Error(StackOverflowError 등)나 예상하지 못한 오류로 writer 스레드가 멈추면
+                // 이후 모든 쓰기가 대기하므로 이 배치만 실패 처리하고 계속 동작
+                logger.error("Unexpected error in group commit writer", e);
+                failBatch(batch, new SQLException("Group commit failed", e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 배치를 한 트랜잭션으로 실행 및 커밋 (SQLITE_BUSY 시 백오프 후 배치 재시도)
+     */
+    private void commitBatch(List<PendingWrite<?>> batch) {
+        long start = System.nanoTime();
+        for (PendingWrite<?> pending : batch) {
+            totalQueueNanos.add(start - pending.enqueuedAt);
+        }
+
+        List<Object> results = new ArrayList<>(batch.size());
+        List<SQLException> errors = new ArrayList<>(batch.size());
+        int attempt = 0;
+
+        while (true) {
+            results.clear();
+            errors.clear();
+            try {
+                executeBatch(batch, results, errors);
+                break;
+            } catch (SQLException e) {
+                if (isBusy(e) && attempt < maxBusyRetries) {
+                    attempt++;
+                    busyRetryCount.increment();
+                    long backoff = backoffMillis(attempt);
+                    logger.warn("Database busy, retrying batch of {} writes in {}ms (attempt {}/{})",
+                                batch.size(), backoff, attempt, maxBusyRetries);
+                    if (sleepQuietly(backoff)) {
+                        continue;
+                    }
+                }
+                logger.error("Group commit of {} writes failed", batch.size(), e);
+                failBatch(batch, e);
+                return;
+            }
+        }
+
+        long commitNanos = System.nanoTime() - start;
+        batchCount.increment();
+        writeCount.add(batch.size());
+        maxBatch.accumulateAndGet(batch.size(), Math::max);
+        totalCommitNanos.add(commitNanos);
+        maxCommitNanos.accumulateAndGet(commitNanos, Math::max);
+        if (errors.contains(null)) {
+            dataVersion.bump();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.get(i) != null) {
+                failedWriteCount.increment();
+                batch.get(i).future.completeExceptionally(errors.get(i));
+            } else {
+                batch.get(i).completeWith(results.get(i));
+            }
+        }
+        logger.debug("Committed batch of {} writes in {}us", batch.size(), commitNanos / 1000);
+    }
+
+    private void failBatch(List<PendingWrite<?>> batch, SQLException e) {
+        for (PendingWrite<?> pending : batch) {
+            if (pending.future.completeExceptionally(e)) {
+                failedWriteCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 작업마다 SAVEPOINT 로 감싸 실행 - 작업 오류는 errors 에 기록, SQLITE_BUSY 와 커밋 오류는 배치 전체 실패
+     */
+    private void executeBatch(List<PendingWrite<?>> batch, List<Object> results, List<SQLException> errors)
+            throws SQLException {
+        beginTransaction();
+        try (Statement stmt = connection.createStatement()) {
+            for (PendingWrite<?> pending : batch) {
+                stmt.execute("SAVEPOINT group_write");
+                try {
+                    results.add(pending.task.execute(connection));
+                    errors.add(null);
+                    stmt.execute("RELEASE group_write");
+                } catch (SQLException e) {
+                    if (isBusy(e)) {
+                        throw e;
+                    }
+                    stmt.execute("ROLLBACK TO group_write");
+                    stmt.execute("RELEASE group_write");
+                    results.add(null);
+                    errors.add(e);
+                } catch (RuntimeException e) {
+                    // 작업 코드의 런타임 오류도 그 작업만 되돌리고 실패 처리
+                    stmt.execute("ROLLBACK TO group_write");
+                    stmt.execute("RELEASE group_write");
+                    results.add(null);
+                    errors.add(new SQLException("Write task failed", e));
+                }
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException | Error e) {
+            // 롤백하지 않고 auto-commit 을 되돌리면 실행된 작업까지 커밋되므로 먼저 롤백
+            rollbackQuietly();
+            throw e;
+        } finally {
+            restoreAutoCommit();
+        }
+    }
+
+    /**
+     * BEGIN IMMEDIATE 로 쓰기 잠금 획득 (busy_timeout 동안 대기)
+     */
+    private void beginTransaction() throws SQLException {
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            // 드라이버는 BEGIN 실행 전에 auto-commit 플래그를 바꾸므로, 열린 트랜잭션 없이 플래그만 되돌림
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+                // "no transaction is active" - 플래그는 이미 복원됨
+            }
+            throw e;
+        }
+    }
+
+    private static long backoffMillis(int attempt) {
+        long backoff = Math.min(BUSY_BACKOFF_MAX_MILLIS, BUSY_BACKOFF_BASE_MILLIS << Math.min(attempt - 1, 16));
+        // 동시에 재시도하는 다른 프로세스와 겹치지 않도록 지터 추가
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private static boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 잠금 경합 오류 여부 (SQLITE_BUSY, SQLITE_LOCKED 및 확장 코드)
+     */
+    public static boolean isBusy(SQLException e) {
+        int primaryCode = e.getErrorCode() & 0xFF;
+        return primaryCode == SQLiteErrorCode.SQLITE_BUSY.code || primaryCode == SQLiteErrorCode.SQLITE_LOCKED.code;
+    }
+
+    private void restoreAutoCommit() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            logger.warn("Failed to restore auto-commit on writer connection", e);
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Rollback on writer connection failed", e);
+        }
+    }
+
+    /**
+     * 데이터 버전 - 성공한 작업이 있는 배치가 커밋될 때마다 증가 (조회 캐시 무효화, ETag 기준)
+     * 작업의 future 가 완료되기 전에 증가하므로 쓰기 완료를 확인한 호출자는 항상 새 값을 봅니다.
+     */
+    public DataVersion getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * 새 작업 접수를 중단하고 남은 작업을 모두 커밋한 뒤 쓰기 커넥션을 닫음
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // writer 스레드가 끝난 뒤 남은 작업은 실행되지 않으므로 실패로 완료
+        List<PendingWrite<?>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            logger.warn("Failing {} writes submitted after writer shutdown", remaining.size());
+            failBatch(remaining, new SQLException("Writer has been shut down"));
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("Failed to close writer connection", e);
+        }
+    }
+
+    /**
+     * 쓰기 지표 조회
+     */
+    public WriterStats getStats() {
+        WriterStats stats = new WriterStats();
+        stats.queuedWrites = queue.size();
+        stats.batches = batchCount.sum();
+        stats.writes = writeCount.sum();
+        stats.failedWrites = failedWriteCount.sum();
+        stats.averageBatchSize = stats.batches > 0 ? (double) stats.writes / stats.batches : 0.0;
+        stats.maxBatchSize = maxBatch.get();
+        stats.averageCommitMillis = stats.batches > 0 ? totalCommitNanos.sum() / (double) stats.batches / 1_000_000.0 : 0.0;
+        stats.maxCommitMillis = maxCommitNanos.get() / 1_000_000.0;
+        stats.averageQueueMillis = stats.writes > 0 ? totalQueueNanos.sum() / (double) stats.writes / 1_000_000.0 : 0.0;
+        stats.busyRetries = busyRetryCount.sum();
+        return stats;
+    }
+
+    /**
+     * 큐에 대기 중인 쓰기 작업
+     */
+    private static class PendingWrite<T> {
+        final WriteTask<T> task;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        PendingWrite(WriteTask<T> task) {
+            this.task = task;
+        }
+
+        @SuppressWarnings("unchecked")
+        void completeWith(Object result) {
+            future.complete((T) result);
+        }
+    }
+
+    /**
+     * 그룹 커밋 지표 클래스
+     */
+    public static class WriterStats {
+        public int queuedWrites;
+        public long batches;
+        public long writes;
+        public long failedWrites;
+        public double averageBatchSize;
+        public long maxBatchSize;
+        public double averageCommitMillis;
+        public double maxCommitMillis;
+        public double averageQueueMillis;
+        public long busyRetries;
+
+        @Override
+        public String toString() {
+            return String.format(
+                "WriterStats{queued=%d, batches=%d, writes=%d, failed=%d, avgBatch=%.2f, maxBatch=%d, avgCommit=%.2fms, maxCommit=%.2fms, avgQueue=%.2fms, busyRetries=%d}",
+                queuedWrites, batches, writes, failedWrites, averageBatchSize, maxBatchSize,
+                averageCommitMillis, maxCommitMillis, averageQueueMillis, busyRetries);
+        }
+    }
+}
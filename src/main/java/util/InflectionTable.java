@@ -0,0 +1,319 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 한국어 활용형 -> 기본형 키워드 색인
+ *
+ * "기쁘다", "슬프다" 처럼 '다' 로 끝나는 기본형 키워드마다 활용된 어간(기뻐, 기뻤, 기쁜, 슬퍼 ...)을 한글 자모
+ * 분해/조합으로 미리 만들어 두고, 단어가 "활용 어간 + 어미" 로 나뉘면 그 키워드를 돌려줍니다.
+ * 활용 어간은 트라이(정렬된 전이 배열)를 단어 앞에서부터 따라가며 찾고, 어간이 끝나는 위치에서만 나머지를
+ * 어미 표(문자 범위를 그대로 해시)에서 확인하므로 대부분의 단어는 첫 글자에서 끝나고 조회 중 객체를 만들지 않습니다.
+ * 규칙 활용, ㅡ 탈락, 르/ㅂ 불규칙, ㄹ 탈락, 하다 활용만 다루는 간단한 규칙이며 형태소 분석기는 아닙니다.
+ */
+public class InflectionTable {
+    private static final char SYLLABLE_BASE = '가';
+    private static final char SYLLABLE_LAST = '힣';
+
+    // 초성/중성 번호
+    private static final int CHO_RIEUL = 5;   // ㄹ
+    private static final int JUNG_A = 0;      // ㅏ
+    private static final int JUNG_AE = 1;     // ㅐ
+    private static final int JUNG_EO = 4;     // ㅓ
+    private static final int JUNG_E = 5;      // ㅔ
+    private static final int JUNG_YEO = 6;    // ㅕ
+    private static final int JUNG_O = 8;      // ㅗ
+    private static final int JUNG_WA = 9;     // ㅘ
+    private static final int JUNG_U = 13;     // ㅜ
+    private static final int JUNG_WEO = 14;   // ㅝ
+    private static final int JUNG_EU = 18;    // ㅡ
+    private static final int JUNG_I = 20;     // ㅣ
+
+    // 종성 번호
+    private static final int JONG_NONE = 0;
+    private static final int JONG_N = 4;      // ㄴ
+    private static final int JONG_L = 8;      // ㄹ
+    private static final int JONG_LM = 10;    // ㄻ
+    private static final int JONG_M = 16;     // ㅁ
+    private static final int JONG_B = 17;     // ㅂ
+    private static final int JONG_SS = 20;    // ㅆ
+
+    // 활용 어간 뒤에 올 수 있는 어미/조사 (빈 문자열은 어간만으로 된 단어)
+    private static final String[] ENDINGS = {
+        "", "다", "요", "고", "지", "지만", "지요", "죠", "게", "네", "네요", "는", "는데", "데", "데요", "니", "니까",
+        "면", "서", "도", "야", "어", "어요", "어서", "어도", "던", "더라", "다고", "다는", "다가", "습니다", "잖아", "구나", "군요",
+        "기", "기도", "을", "를", "이", "은", "에", "과", "해", "해요", "해서", "했다", "했어", "하고", "하는", "하다"
+    };
+
+    // 활용 어간 트라이: 상태 s 의 전이는 edgeChars/edgeTargets[edgeStart[s] .. edgeStart[s + 1])
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // 상태에서 끝나는 어간의 기본형 키워드 번호 (어간이 끝나지 않으면 null)
+    private final int[][] stemIds;
+    private final int stemCount;
+    private final RangeTable<Boolean> endings;
+
+    /**
+     * @param keywords 키워드 목록 (목록 순서가 키워드 번호, '다' 로 끝나는 한글 키워드만 활용형을 만듦)
+     */
+    public InflectionTable(List<String> keywords) {
+        Map<String, List<Integer>> byStem = new LinkedHashMap<>();
+        for (int id = 0; id < keywords.size(); id++) {
+            for (String stem : inflectedStems(keywords.get(id))) {
+                List<Integer> ids = byStem.computeIfAbsent(stem, key -> new ArrayList<>());
+                if (!ids.contains(id)) {
+                    ids.add(id);
+                }
+            }
+        }
+
+        // 트라이 (생성 중에만 맵 사용)
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<int[]> terminals = new ArrayList<>();
+        children.add(new TreeMap<>());
+        terminals.add(null);
+        for (Map.Entry<String, List<Integer>> entry : byStem.entrySet()) {
+            int state = 0;
+            for (char c : entry.getKey().toCharArray()) {
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    terminals.add(null);
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminals.set(state, entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        int states = children.size();
+        edgeStart = new int[states + 1];
+        edgeChars = new char[states - 1];
+        edgeTargets = new int[states - 1];
+        int edge = 0;
+        for (int state = 0; state < states; state++) {
+            edgeStart[state] = edge;
+            for (Map.Entry<Character, Integer> entry : children.get(state).entrySet()) {
+                edgeChars[edge] = entry.getKey();
+                edgeTargets[edge] = entry.getValue();
+                edge++;
+            }
+        }
+        edgeStart[states] = edge;
+        stemIds = terminals.toArray(new int[0][]);
+        stemCount = byStem.size();
+
+        Map<String, Boolean> endingEntries = new LinkedHashMap<>();
+        for (String ending : ENDINGS) {
+            endingEntries.put(ending, Boolean.TRUE);
+        }
+        endings = new RangeTable<>(endingEntries);
+    }
+
+    /**
+     * text[start, end) 단어가 "활용 어간 + 어미" 이면 그 기본형 키워드 번호를 ids 에 기록 (가장 긴 어간 우선)
+     *
+     * @return 찾은 키워드 수 (없으면 0)
+     */
+    public int lookup(CharSequence text, int start, int end, int[] ids) {
+        int[] matched = null;
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            int index = Arrays.binarySearch(edgeChars, edgeStart[state], edgeStart[state + 1], text.charAt(i));
+            if (index < 0) {
+                break;
+            }
+            state = edgeTargets[index];
+            if (stemIds[state] != null && endings.get(text, i + 1, end) != null) {
+                matched = stemIds[state];
+            }
+        }
+        if (matched == null) {
+            return 0;
+        }
+        System.arraycopy(matched, 0, ids, 0, matched.length);
+        return matched.length;
+    }
+
+    public int getStemCount() {
+        return stemCount;
+    }
+
+    /**
+     * 기본형 키워드의 활용 어간 목록 (기본형이 아니면 빈 목록)
+     */
+    static List<String> inflectedStems(String keyword) {
+        List<String> result = new ArrayList<>();
+        if (keyword.length() < 2 || !keyword.endsWith("다") || !isHangul(keyword, keyword.length() - 1)) {
+            return result;
+        }
+
+        String stem = keyword.substring(0, keyword.length() - 1);
+        String head = stem.substring(0, stem.length() - 1);
+        char last = stem.charAt(stem.length() - 1);
+        int cho = choseong(last);
+        int jung = jungseong(last);
+        int jong = jongseong(last);
+        boolean singleSyllable = stem.length() == 1;
+        // 받침 있는 어간의 아/어 선택 (ㅡ 로 끝나는 어간은 앞 음절 모음 기준)
+        boolean bright = jung == JUNG_A || jung == JUNG_O;
+
+        result.add(stem);
+        if (jong == JONG_NONE) {
+            if (last == '하') {
+                addPair(result, head, compose(cho, JUNG_AE, JONG_NONE)); // 편해, 편했
+            } else if (jung == JUNG_EU) {
+                char previous = head.isEmpty() ? 0 : head.charAt(head.length() - 1);
+                boolean previousBright = previous != 0 && (jungseong(previous) == JUNG_A || jungseong(previous) == JUNG_O);
+                if (last == '르' && previous != 0 && jongseong(previous) == JONG_NONE) {
+                    // 르 불규칙: 약오르 -> 약올라
+                    String body = head.substring(0, head.length() - 1)
+                                  + compose(choseong(previous), jungseong(previous), JONG_L);
+                    addPair(result, body, compose(CHO_RIEUL, previousBright ? JUNG_A : JUNG_EO, JONG_NONE));
+                } else {
+                    // ㅡ 탈락: 기쁘 -> 기뻐, 아프 -> 아파
+                    addPair(result, head, compose(cho, previousBright ? JUNG_A : JUNG_EO, JONG_NONE));
+                }
+            } else if (jung == JUNG_I) {
+                addPair(result, head, compose(cho, JUNG_YEO, JONG_NONE)); // 지쳐, 지쳤
+            } else if (jung == JUNG_U) {
+                addPair(result, head, compose(cho, JUNG_WEO, JONG_NONE)); // 이뤄, 이뤘
+                addPair(result, stem, '어'); // 이루어, 이루었
+            } else if (jung == JUNG_O) {
+                addPair(result, head, compose(cho, JUNG_WA, JONG_NONE));
+                addPair(result, stem, '아');
+            } else if (jung == JUNG_A || jung == JUNG_AE || jung == JUNG_EO || jung == JUNG_E || jung == JUNG_YEO) {
+                addPair(result, head, last); // 신나, 신났
+            } else {
+                addPair(result, stem, '어'); // 쉬어, 쉬었
+            }
+            if (!singleSyllable) {
+                result.add(head + compose(cho, jung, JONG_N)); // 기쁜
+                result.add(head + compose(cho, jung, JONG_L)); // 기쁠
+                result.add(head + compose(cho, jung, JONG_M)); // 기쁨
+            }
+        } else if (jong == JONG_B && !singleSyllable) {
+            // ㅂ 불규칙: 즐겁 -> 즐거워, 즐거운
+            String body = head + compose(cho, jung, JONG_NONE);
+            addPair(result, body, '워');
+            result.add(body + '운');
+            result.add(body + '울');
+        } else {
+            addPair(result, stem, bright ? '아' : '어'); // 좋아, 좋았
+            if (jong == JONG_L) {
+                if (!singleSyllable) {
+                    result.add(head + compose(cho, jung, JONG_N)); // 힘든
+                    result.add(head + compose(cho, jung, JONG_LM)); // 힘듦
+                }
+            } else {
+                result.add(stem + '은'); // 좋은
+                result.add(stem + '음'); // 좋음
+                result.add(stem + '을');
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 아/어 활용형과 과거형 (body + vowel, body + vowel 에 ㅆ 받침)
+     */
+    private static void addPair(List<String> result, String body, char vowelSyllable) {
+        result.add(body + vowelSyllable);
+        result.add(body + compose(choseong(vowelSyllable), jungseong(vowelSyllable), JONG_SS));
+    }
+
+    private static boolean isHangul(String text, int index) {
+        char c = text.charAt(index);
+        return c >= SYLLABLE_BASE && c <= SYLLABLE_LAST;
+    }
+
+    private static int choseong(char syllable) {
+        return (syllable - SYLLABLE_BASE) / (21 * 28);
+    }
+
+    private static int jungseong(char syllable) {
+        return (syllable - SYLLABLE_BASE) % (21 * 28) / 28;
+    }
+
+    private static int jongseong(char syllable) {
+        return (syllable - SYLLABLE_BASE) % 28;
+    }
+
+    private static char compose(int cho, int jung, int jong) {
+        return (char) (SYLLABLE_BASE + (cho * 21 + jung) * 28 + jong);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InflectionTable{stems=%d, states=%d, endings=%d}",
+                             stemCount, stemIds.length, endings.size());
+    }
+
+    /**
+     * 문자 범위를 키로 찾는 고정 해시 표 (열린 주소법, 만든 뒤 읽기 전용)
+     */
+    private static final class RangeTable<V> {
+        private final char[][] keys;
+        private final Object[] values;
+        private final int mask;
+        private final int size;
+
+        RangeTable(Map<String, V> entries) {
+            int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 4);
+            keys = new char[capacity][];
+            values = new Object[capacity];
+            mask = capacity - 1;
+            size = entries.size();
+            for (Map.Entry<String, V> entry : entries.entrySet()) {
+                char[] key = entry.getKey().toCharArray();
+                int slot = hash(entry.getKey(), 0, key.length) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = entry.getValue();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(CharSequence text, int start, int end) {
+            for (int slot = hash(text, start, end) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (matches(keys[slot], text, start, end)) {
+                    return (V) values[slot];
+                }
+            }
+            return null;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static boolean matches(char[] key, CharSequence text, int start, int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != text.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(CharSequence text, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + text.charAt(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
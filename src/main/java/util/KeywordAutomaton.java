@@ -0,0 +1,149 @@
+package util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 다중 키워드 검색기 (Aho-Corasick)
+ *
+ * 키워드 목록을 한 번 트라이 + 실패 링크로 만든 뒤, 실패 링크를 미리 따라가 둔 완전 전이표(DFA)로 펼칩니다.
+ * 키워드에 쓰인 문자만 번호(문자 클래스)를 받고 나머지 문자는 모두 클래스 0 이므로, 본문 한 글자당
+ * 배열 조회 두 번으로 다음 상태가 정해집니다. 각 상태의 출력에는 접미사로 끝나는 키워드까지 합쳐 두었습니다.
+ * 만든 뒤에는 읽기 전용이라 여러 스레드에서 함께 사용할 수 있습니다.
+ */
+public class KeywordAutomaton {
+    // 문자 -> 문자 클래스 (키워드에 없는 문자는 0)
+    private final char[] charClass = new char[Character.MAX_VALUE + 1];
+    private final int classCount;
+    // 상태 s 에서 클래스 c 를 읽은 다음 상태: transitions[s * classCount + c]
+    private final int[] transitions;
+    // 상태 s 에서 끝나는 키워드 번호: outputIds[outputStart[s] .. outputStart[s + 1])
+    private final int[] outputStart;
+    private final int[] outputIds;
+    private final int patternCount;
+
+    /**
+     * @param patterns 키워드 목록 (목록 순서가 키워드 번호, 중복이 있으면 각각 보고)
+     */
+    public KeywordAutomaton(List<String> patterns) {
+        this.patternCount = patterns.size();
+
+        // 1. 문자 클래스
+        int classes = 1;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                if (charClass[pattern.charAt(i)] == 0) {
+                    charClass[pattern.charAt(i)] = (char) classes++;
+                }
+            }
+        }
+        this.classCount = classes;
+
+        // 2. 트라이 (생성 중에는 -1 이 전이 없음)
+        List<int[]> children = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        children.add(newRow());
+        outputs.add(new ArrayList<>());
+        for (int id = 0; id < patterns.size(); id++) {
+            String pattern = patterns.get(id);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword at index " + id);
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = charClass[pattern.charAt(i)];
+                if (children.get(state)[c] < 0) {
+                    children.get(state)[c] = children.size();
+                    children.add(newRow());
+                    outputs.add(new ArrayList<>());
+                }
+                state = children.get(state)[c];
+            }
+            outputs.get(state).add(id);
+        }
+
+        // 3. 실패 링크를 따라간 결과로 빈 전이를 채움 (BFS 순서라 실패 상태는 이미 채워져 있음)
+        int states = children.size();
+        int[] fail = new int[states];
+        transitions = new int[states * classCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = children.get(state);
+            for (int c = 0; c < classCount; c++) {
+                int child = row[c];
+                if (child < 0) {
+                    transitions[state * classCount + c] = state == 0 ? 0 : transitions[fail[state] * classCount + c];
+                    continue;
+                }
+                transitions[state * classCount + c] = child;
+                fail[child] = state == 0 ? 0 : transitions[fail[state] * classCount + c];
+                outputs.get(child).addAll(outputs.get(fail[child]));
+                queue.add(child);
+            }
+        }
+
+        outputStart = new int[states + 1];
+        outputIds = new int[outputs.stream().mapToInt(List::size).sum()];
+        int output = 0;
+        for (int state = 0; state < states; state++) {
+            outputStart[state] = output;
+            for (int id : outputs.get(state)) {
+                outputIds[output++] = id;
+            }
+        }
+        outputStart[states] = output;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * 본문에 나타난 키워드 표시 (found[키워드 번호] = true, 이미 true 인 칸은 그대로)
+     *
+     * @return 새로 표시한 키워드 수
+     */
+    public int match(CharSequence text, boolean[] found) {
+        int newlyFound = 0;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * classCount + charClass[text.charAt(i)]];
+            for (int o = outputStart[state], end = outputStart[state + 1]; o < end; o++) {
+                if (!found[outputIds[o]]) {
+                    found[outputIds[o]] = true;
+                    newlyFound++;
+                }
+            }
+        }
+        return newlyFound;
+    }
+
+    /**
+     * 본문에 나타난 키워드 표시 (새 배열)
+     */
+    public boolean[] match(CharSequence text) {
+        boolean[] found = new boolean[patternCount];
+        match(text, found);
+        return found;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public int getStateCount() {
+        return outputStart.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KeywordAutomaton{patterns=%d, states=%d, classes=%d}",
+                             patternCount, getStateCount(), classCount);
+    }
+}
@@ -0,0 +1,202 @@
+package util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 고정 크기 빈도 스케치 (Space-Saving)
+ *
+ * 최대 capacity 개의 단어만 세며, 가득 찬 상태에서 새 단어가 들어오면 가장 적게 센 단어를 밀어내고
+ * 그 개수를 이어받습니다. 그래서 각 단어의 개수는 실제보다 많을 수 있지만 error 이상 많지는 않습니다.
+ * (count - error <= 실제 개수 <= count, 실제로 total / capacity 번 넘게 나온 단어는 반드시 남아 있음)
+ * 스레드 안전하지 않으므로 writer 스레드에서 갱신하고 조회에는 복원한 사본을 사용합니다.
+ */
+public class KeywordSketch {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final Comparator<Counter> BY_COUNT =
+        Comparator.<Counter>comparingLong(counter -> counter.count).thenComparing(counter -> counter.item);
+
+    private final int capacity;
+    private long total;
+    private final Map<String, Counter> counters = new HashMap<>();
+    // 개수 오름차순 (첫 원소가 교체 대상)
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+
+    public KeywordSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public void offer(String item) {
+        total++;
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            // 정렬 키가 바뀌므로 빼고 다시 넣음
+            byCount.remove(counter);
+            counter.count++;
+            byCount.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            put(new Counter(item, 1, 0));
+            return;
+        }
+
+        Counter evicted = byCount.pollFirst();
+        counters.remove(evicted.item);
+        put(new Counter(item, evicted.count + 1, evicted.count));
+    }
+
+    public void offerAll(String[] items) {
+        for (String item : items) {
+            offer(item);
+        }
+    }
+
+    /**
+     * 개수가 많은 순서로 최대 k 개
+     */
+    public List<Entry> top(int k) {
+        List<Counter> sorted = new ArrayList<>(Math.min(k + 1, counters.size()));
+        Iterator<Counter> iterator = byCount.descendingIterator();
+        while (iterator.hasNext() && sorted.size() <= k) {
+            sorted.add(iterator.next());
+        }
+
+        // 최소 개수가 k+1 번째 단어의 개수 이상이면 순위가 보장됨
+        long nextCount = sorted.size() > k ? sorted.get(k).count : (isFull() ? byCount.first().count : 0);
+        List<Entry> entries = new ArrayList<>(Math.min(k, sorted.size()));
+        for (int i = 0; i < sorted.size() && i < k; i++) {
+            Counter counter = sorted.get(i);
+            entries.add(new Entry(counter.item, counter.count, counter.error, counter.count - counter.error >= nextCount));
+        }
+        return entries;
+    }
+
+    /**
+     * 지금까지 넣은 단어 수 (중복 포함)
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 어떤 단어의 개수든 실제보다 많을 수 있는 최대값 (가득 차기 전에는 0, 정확히 셈)
+     */
+    public long getMaxError() {
+        return isFull() ? byCount.first().count : 0;
+    }
+
+    private boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    private void put(Counter counter) {
+        counters.put(counter.item, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * 저장용 직렬화 (버전, 용량, 전체 수, 단어별 개수/오차)
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + counters.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(capacity);
+            out.writeLong(total);
+            out.writeInt(counters.size());
+            for (Counter counter : byCount) {
+                out.writeUTF(counter.item);
+                out.writeLong(counter.count);
+                out.writeLong(counter.error);
+            }
+        } catch (IOException e) {
+            // 메모리 스트림이므로 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 저장된 스케치 복원 (null 이면 빈 스케치)
+     */
+    public static KeywordSketch fromBytes(byte[] data) throws IOException {
+        if (data == null) {
+            return new KeywordSketch(DEFAULT_CAPACITY);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported keyword sketch version: " + version);
+            }
+            KeywordSketch sketch = new KeywordSketch(in.readInt());
+            sketch.total = in.readLong();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                sketch.put(new Counter(in.readUTF(), in.readLong(), in.readLong()));
+            }
+            return sketch;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KeywordSketch{capacity=%d, size=%d, total=%d, maxError=%d}",
+                             capacity, counters.size(), total, getMaxError());
+    }
+
+    private static final class Counter {
+        final String item;
+        long count;
+        final long error;
+
+        Counter(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 상위 단어 항목 (guaranteed 면 오차를 감안해도 상위 k 안에 드는 단어)
+     */
+    public static class Entry {
+        public final String keyword;
+        public final long count;
+        public final long error;
+        public final boolean guaranteed;
+
+        Entry(String keyword, long count, long error, boolean guaranteed) {
+            this.keyword = keyword;
+            this.count = count;
+            this.error = error;
+            this.guaranteed = guaranteed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s=%d(±%d)", keyword, count, error);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 스키마 마이그레이션 단위
+ *
+ * migrate() 는 시작 시 버전 기록과 같은 트랜잭션에서 실행되므로 빠른 DDL 만 수행해야 합니다.
+ * 기존 행을 채워야 하는 경우 backfill 대상 최대 id 를 반환하면,
+ * SchemaMigrator 가 백그라운드에서 id 구간 단위로 backfill() 을 호출합니다.
+ */
+public abstract class Migration {
+    private final int version;
+    private final String description;
+
+    protected Migration(int version, String description) {
+        this.version = version;
+        this.description = description;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 스키마 변경 수행
+     *
+     * @return backfill 이 필요한 최대 id (없으면 0)
+     */
+    public abstract long migrate(Connection conn) throws SQLException;
+
+    /**
+     * (fromIdExclusive, toIdInclusive] 구간의 기존 행 채우기 - 구간마다 별도 트랜잭션으로 커밋됨
+     */
+    public void backfill(Connection conn, long fromIdExclusive, long toIdInclusive) throws SQLException {
+    }
+
+    /**
+     * backfill 완료 후 한 번 실행 (완료 후에만 유효한 트리거, 인덱스 등)
+     */
+    public void completeBackfill(Connection conn) throws SQLException {
+    }
+
+    /**
+     * DDL 문만 실행하는 마이그레이션
+     */
+    public static Migration of(int version, String description, String... sqls) {
+        return new Migration(version, description) {
+            @Override
+            public long migrate(Connection conn) throws SQLException {
+                execute(conn, sqls);
+                return 0;
+            }
+        };
+    }
+
+    protected static void execute(Connection conn, String... sqls) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : sqls) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    protected static boolean tableExists(Connection conn, String tableName) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + tableName + "'")) {
+            return rs.next();
+        }
+    }
+
+    protected static boolean columnExists(Connection conn, String tableName, String columnName) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tableName + ")")) {
+            while (rs.next()) {
+                if (columnName.equals(rs.getString("name"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    protected static long maxId(Connection conn, String tableName) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + tableName)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 트리거 WHEN 조건 - old 행이 이미 backfill 되었는지 (대상 범위 밖이거나 backfill 위치 이하)
+     * backfill 중에 삭제/수정 트리거를 둘 때, 아직 backfill 되지 않은 행은 건너뛰도록 사용합니다.
+     */
+    protected static String backfilledRow(int version, long target) {
+        return "old.id > " + target
+               + " OR old.id <= (SELECT backfill_cursor FROM schema_version WHERE version = " + version + ")";
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
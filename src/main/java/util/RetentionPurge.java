@@ -0,0 +1,259 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 보존 기간이 지난 일기 정리 작업
+ *
+ * 한 번의 큰 DELETE 대신 id 구간 단위로 나누어 writer 로 짧게 커밋하고,
+ * 초당 삭제 행 수 예산에 맞춰 구간 사이에 쉬므로 정리 중에도 새 일기 저장이 밀리지 않습니다.
+ * 삭제가 끝나면 incremental_vacuum 으로 빈 페이지를 조금씩 반환하여 파일 크기를 줄입니다.
+ */
+public class RetentionPurge {
+    private static final Logger logger = LoggerFactory.getLogger(RetentionPurge.class);
+
+    // 정리 대상 id 범위 (created_day 인덱스만으로 처리)
+    public static final String PURGE_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM diary WHERE created_day < ?";
+    // id 구간 단위 삭제 (rowid 범위 탐색)
+    public static final String PURGE_CHUNK_SQL = "DELETE FROM diary WHERE id > ? AND id <= ? AND created_day < ?";
+
+    // incremental_vacuum 한 번에 반환할 최대 페이지 수
+    private static final int VACUUM_PAGES_PER_STEP = 256;
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private final ConnectionPool connectionPool;
+    private final GroupCommitWriter writer;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+    private final long minPauseMillis;
+
+    // 진행 상황 및 누적 지표
+    private volatile PurgeProgress current;
+    private final LongAdder totalDeleted = new LongAdder();
+    private final LongAdder totalChunks = new LongAdder();
+    private final LongAdder totalFreedPages = new LongAdder();
+    private final AtomicLong runCount = new AtomicLong();
+
+    public RetentionPurge(ConnectionPool connectionPool, GroupCommitWriter writer,
+                          int chunkSize, int rowsPerSecond, long minPauseMillis) {
+        this.connectionPool = connectionPool;
+        this.writer = writer;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.rowsPerSecond = Math.max(0, rowsPerSecond);
+        this.minPauseMillis = Math.max(0, minPauseMillis);
+    }
+
+    /**
+     * created_day 가 cutoffEpochDay 보다 이전인 일기를 구간 단위로 삭제 (동시에 한 번만 실행)
+     *
+     * @return 삭제된 일기 수
+     */
+    public synchronized long purge(long cutoffEpochDay) throws SQLException {
+        PurgeProgress progress = new PurgeProgress();
+        progress.cutoffEpochDay = cutoffEpochDay;
+        progress.startedAt = System.currentTimeMillis();
+        current = progress;
+        runCount.incrementAndGet();
+
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(PURGE_RANGE_SQL)) {
+            stmt.setLong(1, cutoffEpochDay);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getObject(1) != null) {
+                    progress.startId = rs.getLong(1) - 1;
+                    progress.cursor = progress.startId;
+                    progress.targetId = rs.getLong(2);
+                }
+            }
+        }
+
+        long lastLogged = progress.startedAt;
+        logger.info("Retention purge started: cutoff day {}, id range ({}, {}]",
+                    cutoffEpochDay, progress.cursor, progress.targetId);
+
+        try {
+            while (progress.cursor < progress.targetId) {
+                if (Thread.currentThread().isInterrupted()) {
+                    logger.info("Retention purge interrupted: {}", progress);
+                    break;
+                }
+
+                long from = progress.cursor;
+                long to = Math.min(from + chunkSize, progress.targetId);
+                int deleted = writer.execute(conn -> {
+                    try (PreparedStatement stmt = conn.prepareStatement(PURGE_CHUNK_SQL)) {
+                        stmt.setLong(1, from);
+                        stmt.setLong(2, to);
+                        stmt.setLong(3, cutoffEpochDay);
+                        return stmt.executeUpdate();
+                    }
+                });
+
+                progress.cursor = to;
+                progress.deletedRows += deleted;
+                progress.chunks++;
+                totalDeleted.add(deleted);
+                totalChunks.increment();
+
+                long now = System.currentTimeMillis();
+                if (now - lastLogged >= 5000) {
+                    logger.info("Retention purge progress: {}", progress);
+                    lastLogged = now;
+                }
+
+                if (progress.cursor < progress.targetId) {
+                    throttle(progress);
+                }
+            }
+
+            progress.freedPages = incrementalVacuum();
+            totalFreedPages.add(progress.freedPages);
+        } finally {
+            progress.finishedAt = System.currentTimeMillis();
+        }
+
+        logger.info("Retention purge finished: {}", progress);
+        return progress.deletedRows;
+    }
+
+    /**
+     * 초당 삭제 예산에 맞춰 대기 - 예산보다 빠르면 그만큼, 최소 minPauseMillis 는 항상 쉼
+     */
+    private void throttle(PurgeProgress progress) {
+        long elapsed = System.currentTimeMillis() - progress.startedAt;
+        long budgetElapsed = rowsPerSecond > 0 ? progress.deletedRows * 1000 / rowsPerSecond : 0;
+        long pause = Math.max(minPauseMillis, budgetElapsed - elapsed);
+        if (pause <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 빈 페이지를 VACUUM_PAGES_PER_STEP 씩 파일에서 반환
+     * (auto_vacuum = INCREMENTAL 인 DB 에서만 가능 - 새 DB 는 쓰기 커넥션이 설정, 기존 DB 는 한 번 VACUUM 필요)
+     *
+     * @return 반환된 페이지 수
+     */
+    private long incrementalVacuum() throws SQLException {
+        if (queryPragma("auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            logger.info("auto_vacuum is not INCREMENTAL; freed pages will be reused but the file will not shrink "
+                        + "until the database is converted with PRAGMA auto_vacuum = INCREMENTAL; VACUUM");
+            return 0;
+        }
+
+        long freed = 0;
+        long freePages = queryPragma("freelist_count");
+        while (freePages > 0 && !Thread.currentThread().isInterrupted()) {
+            writer.execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    // execute() 는 한 단계(1 페이지)만 실행하므로 executeUpdate 로 끝까지 실행
+                    return stmt.executeUpdate("PRAGMA incremental_vacuum(" + VACUUM_PAGES_PER_STEP + ")");
+                }
+            });
+            long remaining = queryPragma("freelist_count");
+            if (remaining >= freePages) {
+                break;
+            }
+            freed += freePages - remaining;
+            freePages = remaining;
+            if (freePages > 0 && minPauseMillis > 0) {
+                try {
+                    Thread.sleep(minPauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return freed;
+    }
+
+    private long queryPragma(String pragma) throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 현재(또는 마지막) 정리 작업 진행 상황
+     */
+    public PurgeProgress getProgress() {
+        return current;
+    }
+
+    /**
+     * 누적 정리 지표
+     */
+    public PurgeStats getStats() {
+        PurgeStats stats = new PurgeStats();
+        stats.runs = runCount.get();
+        stats.deletedRows = totalDeleted.sum();
+        stats.chunks = totalChunks.sum();
+        stats.freedPages = totalFreedPages.sum();
+        stats.running = current != null && current.finishedAt == 0;
+        return stats;
+    }
+
+    /**
+     * 정리 작업 진행 상황 클래스
+     */
+    public static class PurgeProgress {
+        public long cutoffEpochDay;
+        public long startId;
+        public long cursor;
+        public long targetId;
+        public long deletedRows;
+        public long chunks;
+        public long freedPages;
+        public long startedAt;
+        public volatile long finishedAt;
+
+        public int getProgressPercent() {
+            long total = targetId - startId;
+            return total > 0 ? (int) ((cursor - startId) * 100 / total) : 100;
+        }
+
+        public double getRowsPerSecond() {
+            long elapsed = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+            return elapsed > 0 ? deletedRows * 1000.0 / elapsed : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PurgeProgress{cursor=%d/%d (%d%%), deleted=%d, chunks=%d, rate=%.1f rows/s, freedPages=%d}",
+                                 cursor, targetId, getProgressPercent(), deletedRows, chunks, getRowsPerSecond(), freedPages);
+        }
+    }
+
+    /**
+     * 누적 정리 지표 클래스
+     */
+    public static class PurgeStats {
+        public long runs;
+        public long deletedRows;
+        public long chunks;
+        public long freedPages;
+        public boolean running;
+
+        @Override
+        public String toString() {
+            return String.format("PurgeStats{runs=%d, deleted=%d, chunks=%d, freedPages=%d, running=%s}",
+                                 runs, deletedRows, chunks, freedPages, running);
+        }
+    }
+}
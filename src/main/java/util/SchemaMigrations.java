@@ -0,0 +1,377 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 스키마 마이그레이션 목록 (버전 순, 적용된 버전은 수정하지 말고 새 버전을 추가할 것)
+ */
+public final class SchemaMigrations {
+    // created_day 컬럼과 backfill 을 추가하는 버전 (완료 전에는 기존 일기의 created_day 가 NULL)
+    public static final int CREATED_DAY_VERSION = 4;
+
+    private SchemaMigrations() {
+    }
+
+    public static List<Migration> all() {
+        return List.of(
+            createBaseTables(),
+            createdAtIndex(),
+            fullTextIndex(),
+            timestampColumns(),
+            backupDuration(),
+            dailyEmotionCounts(),
+            emotionAnalyses(),
+            keywordSketches()
+        );
+    }
+
+    /**
+     * V1 - 기본 테이블 (이전 버전에서 만들어진 DB 에서는 이미 존재)
+     */
+    private static Migration createBaseTables() {
+        return Migration.of(1, "create base tables",
+            """
+            CREATE TABLE IF NOT EXISTS diary (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                content TEXT NOT NULL,
+                emotion_summary TEXT,
+                created_at TEXT NOT NULL,
+                updated_at TEXT NOT NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS user_settings (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                setting_key TEXT UNIQUE NOT NULL,
+                setting_value TEXT,
+                created_at TEXT NOT NULL,
+                updated_at TEXT NOT NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS backup_log (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                backup_path TEXT NOT NULL,
+                backup_size INTEGER,
+                created_at TEXT NOT NULL,
+                status TEXT DEFAULT 'SUCCESS'
+            )
+            """);
+    }
+
+    /**
+     * V2 - (created_at, id) 키셋 페이징용 인덱스 (rowid 가 암묵적으로 포함됨)
+     */
+    private static Migration createdAtIndex() {
+        return Migration.of(2, "diary created_at index",
+            "CREATE INDEX IF NOT EXISTS idx_diary_created_at ON diary(created_at)");
+    }
+
+    /**
+     * V3 - 전문 검색 색인: diary 의 content, emotion_summary 를 미러링하는 FTS5 테이블
+     *
+     * 한국어는 공백 단위 토큰화가 맞지 않아 trigram 토크나이저를 사용합니다 (부분 문자열 검색).
+     * 적용 시점 이후의 새 일기는 INSERT 트리거가 색인하고, 기존 일기는 backfill 로 채웁니다.
+     * 삭제/수정 트리거도 적용 시점에 만들되, 색인되지 않은 행에 'delete' 가 실행되지 않도록
+     * backfill 중에는 이미 색인된 행(backfill 위치 이하 또는 대상 범위 밖)에만 동작합니다.
+     */
+    private static Migration fullTextIndex() {
+        return new Migration(3, "diary full-text index") {
+            @Override
+            public long migrate(Connection conn) throws SQLException {
+                if (tableExists(conn, "diary_fts")) {
+                    // 이전 버전에서 생성 및 전체 색인이 끝난 경우
+                    return 0;
+                }
+                long target = maxId(conn, "diary");
+                String indexed = backfilledRow(3, target);
+                execute(conn,
+                    """
+                    CREATE VIRTUAL TABLE diary_fts USING fts5(
+                        content, emotion_summary,
+                        content = 'diary', content_rowid = 'id',
+                        tokenize = 'trigram'
+                    )
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_fts_ai AFTER INSERT ON diary BEGIN
+                        INSERT INTO diary_fts(rowid, content, emotion_summary)
+                        VALUES (new.id, new.content, new.emotion_summary);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_fts_ad AFTER DELETE ON diary
+                    WHEN %s BEGIN
+                        INSERT INTO diary_fts(diary_fts, rowid, content, emotion_summary)
+                        VALUES ('delete', old.id, old.content, old.emotion_summary);
+                    END
+                    """.formatted(indexed),
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_fts_au AFTER UPDATE OF content, emotion_summary ON diary
+                    WHEN %s BEGIN
+                        INSERT INTO diary_fts(diary_fts, rowid, content, emotion_summary)
+                        VALUES ('delete', old.id, old.content, old.emotion_summary);
+                        INSERT INTO diary_fts(rowid, content, emotion_summary)
+                        VALUES (new.id, new.content, new.emotion_summary);
+                    END
+                    """.formatted(indexed));
+                return target;
+            }
+
+            @Override
+            public void backfill(Connection conn, long fromIdExclusive, long toIdInclusive) throws SQLException {
+                try (PreparedStatement stmt = conn.prepareStatement("""
+                        INSERT INTO diary_fts(rowid, content, emotion_summary)
+                        SELECT id, content, emotion_summary FROM diary WHERE id > ? AND id <= ?
+                        """)) {
+                    stmt.setLong(1, fromIdExclusive);
+                    stmt.setLong(2, toIdInclusive);
+                    stmt.executeUpdate();
+                }
+            }
+
+            /**
+             * 이전 버전에서 backfill 중이던 DB 는 삭제/수정 트리거가 없으므로 완료 시점에 생성
+             */
+            @Override
+            public void completeBackfill(Connection conn) throws SQLException {
+                execute(conn,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_fts_ai AFTER INSERT ON diary BEGIN
+                        INSERT INTO diary_fts(rowid, content, emotion_summary)
+                        VALUES (new.id, new.content, new.emotion_summary);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_fts_ad AFTER DELETE ON diary BEGIN
+                        INSERT INTO diary_fts(diary_fts, rowid, content, emotion_summary)
+                        VALUES ('delete', old.id, old.content, old.emotion_summary);
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_fts_au AFTER UPDATE OF content, emotion_summary ON diary BEGIN
+                        INSERT INTO diary_fts(diary_fts, rowid, content, emotion_summary)
+                        VALUES ('delete', old.id, old.content, old.emotion_summary);
+                        INSERT INTO diary_fts(rowid, content, emotion_summary)
+                        VALUES (new.id, new.content, new.emotion_summary);
+                    END
+                    """);
+            }
+        };
+    }
+
+    /**
+     * V4 - 날짜 조건을 인덱스 범위 탐색으로 처리하기 위한 숫자 타임스탬프 컬럼
+     *
+     * created_at_ms: created_at(로컬 시각)의 epoch 밀리초
+     * created_day:   created_at 로컬 날짜의 epoch day (1970-01-01 = 0)
+     * 새 일기는 저장 시 값을 채우고, 기존 일기는 created_at 으로부터 backfill 합니다.
+     */
+    private static Migration timestampColumns() {
+        return new Migration(CREATED_DAY_VERSION, "diary epoch timestamp columns") {
+            @Override
+            public long migrate(Connection conn) throws SQLException {
+                if (!columnExists(conn, "diary", "created_at_ms")) {
+                    execute(conn, "ALTER TABLE diary ADD COLUMN created_at_ms INTEGER");
+                }
+                if (!columnExists(conn, "diary", "created_day")) {
+                    execute(conn, "ALTER TABLE diary ADD COLUMN created_day INTEGER");
+                }
+                execute(conn,
+                    "CREATE INDEX IF NOT EXISTS idx_diary_created_at_ms ON diary(created_at_ms)",
+                    "CREATE INDEX IF NOT EXISTS idx_diary_created_day ON diary(created_day, created_at_ms)");
+                return maxId(conn, "diary");
+            }
+
+            @Override
+            public void backfill(Connection conn, long fromIdExclusive, long toIdInclusive) throws SQLException {
+                try (PreparedStatement stmt = conn.prepareStatement("""
+                        UPDATE diary
+                        SET created_at_ms = CAST(strftime('%s', created_at, 'utc') AS INTEGER) * 1000,
+                            created_day = CAST(julianday(DATE(created_at)) - 2440587.5 AS INTEGER)
+                        WHERE id > ? AND id <= ? AND (created_at_ms IS NULL OR created_day IS NULL)
+                        """)) {
+                    stmt.setLong(1, fromIdExclusive);
+                    stmt.setLong(2, toIdInclusive);
+                    stmt.executeUpdate();
+                }
+            }
+        };
+    }
+
+    /**
+     * V5 - 백업 소요 시간 기록용 컬럼
+     */
+    private static Migration backupDuration() {
+        return new Migration(5, "backup_log duration column") {
+            @Override
+            public long migrate(Connection conn) throws SQLException {
+                if (!columnExists(conn, "backup_log", "duration_ms")) {
+                    execute(conn, "ALTER TABLE backup_log ADD COLUMN duration_ms INTEGER");
+                }
+                return 0;
+            }
+        };
+    }
+
+    /**
+     * V6 - 날짜별 감정 집계 테이블 (통계 조회용 롤업)
+     *
+     * diary 트리거가 같은 트랜잭션에서 갱신하므로 통계 조회 비용이 일기 수가 아닌 조회 일수에 비례합니다.
+     * 적용 시점 이후의 새 일기는 INSERT 트리거가 반영하고, 기존 일기는 backfill 로 채웁니다.
+     * 삭제/수정 트리거도 적용 시점에 만들되, backfill 중에는 이미 집계된 행(backfill 위치 이하 또는 대상 범위 밖)만
+     * 빼고 더하므로 backfill 도중 삭제/수정된 일기도 중복 집계되지 않습니다.
+     * 감정이 없는 일기는 emotion = '' 으로 집계합니다.
+     */
+    private static Migration dailyEmotionCounts() {
+        return new Migration(6, "daily emotion counts rollup") {
+            @Override
+            public long migrate(Connection conn) throws SQLException {
+                long target = maxId(conn, "diary");
+                String counted = backfilledRow(6, target);
+                execute(conn,
+                    """
+                    CREATE TABLE IF NOT EXISTS daily_emotion_counts (
+                        day INTEGER NOT NULL,
+                        emotion TEXT NOT NULL,
+                        count INTEGER NOT NULL,
+                        PRIMARY KEY (day, emotion)
+                    ) WITHOUT ROWID
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_counts_ai AFTER INSERT ON diary
+                    WHEN new.created_day IS NOT NULL BEGIN
+                        INSERT INTO daily_emotion_counts (day, emotion, count)
+                        VALUES (new.created_day, COALESCE(new.emotion_summary, ''), 1)
+                        ON CONFLICT (day, emotion) DO UPDATE SET count = count + 1;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_counts_ad AFTER DELETE ON diary
+                    WHEN old.created_day IS NOT NULL AND (%s) BEGIN
+                        UPDATE daily_emotion_counts SET count = count - 1
+                        WHERE day = old.created_day AND emotion = COALESCE(old.emotion_summary, '');
+                        DELETE FROM daily_emotion_counts
+                        WHERE day = old.created_day AND emotion = COALESCE(old.emotion_summary, '') AND count <= 0;
+                    END
+                    """.formatted(counted),
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_counts_au AFTER UPDATE OF created_day, emotion_summary ON diary
+                    WHEN %s BEGIN
+                        UPDATE daily_emotion_counts SET count = count - 1
+                        WHERE old.created_day IS NOT NULL
+                          AND day = old.created_day AND emotion = COALESCE(old.emotion_summary, '');
+                        DELETE FROM daily_emotion_counts
+                        WHERE old.created_day IS NOT NULL
+                          AND day = old.created_day AND emotion = COALESCE(old.emotion_summary, '') AND count <= 0;
+                        INSERT INTO daily_emotion_counts (day, emotion, count)
+                        SELECT new.created_day, COALESCE(new.emotion_summary, ''), 1
+                        WHERE new.created_day IS NOT NULL
+                        ON CONFLICT (day, emotion) DO UPDATE SET count = count + 1;
+                    END
+                    """.formatted(counted));
+                return target;
+            }
+
+            @Override
+            public void backfill(Connection conn, long fromIdExclusive, long toIdInclusive) throws SQLException {
+                try (PreparedStatement stmt = conn.prepareStatement("""
+                        INSERT INTO daily_emotion_counts (day, emotion, count)
+                        SELECT created_day, COALESCE(emotion_summary, ''), COUNT(*)
+                        FROM diary
+                        WHERE id > ? AND id <= ? AND created_day IS NOT NULL
+                        GROUP BY created_day, COALESCE(emotion_summary, '')
+                        ON CONFLICT (day, emotion) DO UPDATE SET count = count + excluded.count
+                        """)) {
+                    stmt.setLong(1, fromIdExclusive);
+                    stmt.setLong(2, toIdInclusive);
+                    stmt.executeUpdate();
+                }
+            }
+
+            /**
+             * 이전 버전에서 backfill 중이던 DB 는 삭제/수정 트리거가 없으므로 완료 시점에 생성
+             */
+            @Override
+            public void completeBackfill(Connection conn) throws SQLException {
+                execute(conn,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_counts_ad AFTER DELETE ON diary
+                    WHEN old.created_day IS NOT NULL BEGIN
+                        UPDATE daily_emotion_counts SET count = count - 1
+                        WHERE day = old.created_day AND emotion = COALESCE(old.emotion_summary, '');
+                        DELETE FROM daily_emotion_counts
+                        WHERE day = old.created_day AND emotion = COALESCE(old.emotion_summary, '') AND count <= 0;
+                    END
+                    """,
+                    """
+                    CREATE TRIGGER IF NOT EXISTS diary_counts_au AFTER UPDATE OF created_day, emotion_summary ON diary BEGIN
+                        UPDATE daily_emotion_counts SET count = count - 1
+                        WHERE old.created_day IS NOT NULL
+                          AND day = old.created_day AND emotion = COALESCE(old.emotion_summary, '');
+                        DELETE FROM daily_emotion_counts
+                        WHERE old.created_day IS NOT NULL
+                          AND day = old.created_day AND emotion = COALESCE(old.emotion_summary, '') AND count <= 0;
+                        INSERT INTO daily_emotion_counts (day, emotion, count)
+                        SELECT new.created_day, COALESCE(new.emotion_summary, ''), 1
+                        WHERE new.created_day IS NOT NULL
+                        ON CONFLICT (day, emotion) DO UPDATE SET count = count + 1;
+                    END
+                    """);
+            }
+        };
+    }
+
+    /**
+     * V7 - 일기별 감정 분석 결과 (신뢰도, 강도, 감정별 점수)
+     *
+     * 감정별 점수는 Emotion 코드 순서의 float32 배열 BLOB 한 개로 저장합니다. (감정당 행을 두지 않음)
+     * 날짜별 평균은 (day, intensity, confidence) 인덱스만으로 집계되며, 일기가 삭제되면 트리거가 함께 지웁니다.
+     * 이전에 작성된 일기는 분석 결과가 없으므로 집계에서 빠집니다.
+     */
+    private static Migration emotionAnalyses() {
+        return Migration.of(7, "emotion analyses",
+            """
+            CREATE TABLE IF NOT EXISTS emotion_analyses (
+                diary_id INTEGER PRIMARY KEY,
+                day INTEGER NOT NULL,
+                emotion TEXT NOT NULL,
+                confidence REAL NOT NULL,
+                intensity REAL NOT NULL,
+                scores BLOB NOT NULL
+            )
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_emotion_analyses_day ON emotion_analyses (day, intensity, confidence)",
+            """
+            CREATE TRIGGER IF NOT EXISTS diary_analyses_ad AFTER DELETE ON diary BEGIN
+                DELETE FROM emotion_analyses WHERE diary_id = old.id;
+            END
+            """,
+            """
+            CREATE TRIGGER IF NOT EXISTS diary_analyses_au AFTER UPDATE OF created_day ON diary
+            WHEN new.created_day IS NOT NULL BEGIN
+                UPDATE emotion_analyses SET day = new.created_day WHERE diary_id = new.id;
+            END
+            """);
+    }
+
+    /**
+     * V8 - 월별 키워드 빈도 스케치 (month = yyyyMM, sketch = KeywordSketch 직렬화)
+     *
+     * 일기 저장과 같은 트랜잭션에서 갱신하므로 상위 키워드 조회는 한 행만 읽습니다.
+     * 이전에 작성된 일기는 포함되지 않습니다.
+     */
+    private static Migration keywordSketches() {
+        return Migration.of(8, "keyword sketches",
+            """
+            CREATE TABLE IF NOT EXISTS keyword_sketches (
+                month INTEGER PRIMARY KEY,
+                total INTEGER NOT NULL,
+                sketch BLOB NOT NULL
+            )
+            """);
+    }
+}
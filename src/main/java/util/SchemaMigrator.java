@@ -0,0 +1,346 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 버전 기반 스키마 마이그레이션 실행기
+ *
+ * schema_version 테이블에 적용된 버전을 기록하고, 시작 시 미적용 마이그레이션을 순서대로 한 번씩 적용합니다.
+ * 기존 행 backfill 은 백그라운드 스레드에서 작은 id 구간 단위로 커밋하므로 쓰기 작업을 오래 막지 않으며,
+ * 진행 위치(backfill_cursor)를 매 배치마다 기록하여 프로세스가 중단되어도 이어서 진행합니다.
+ * 스키마 변경과 backfill 은 모두 GroupCommitWriter 를 통해 실행되어 다른 쓰기와 직렬화됩니다.
+ * backfill 이 끝나야 유효한 파생 데이터는 onBackfillComplete 로 완료 시점에 다시 만들 수 있습니다.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String STATUS_BACKFILLING = "BACKFILLING";
+    private static final String STATUS_COMPLETE = "COMPLETE";
+
+    private static final String CREATE_VERSION_TABLE_SQL = """
+        CREATE TABLE IF NOT EXISTS schema_version (
+            version INTEGER PRIMARY KEY,
+            description TEXT NOT NULL,
+            applied_at TEXT NOT NULL,
+            status TEXT NOT NULL,
+            backfill_cursor INTEGER NOT NULL DEFAULT 0,
+            backfill_target INTEGER NOT NULL DEFAULT 0
+        )
+        """;
+
+    private final ConnectionPool connectionPool;
+    private final GroupCommitWriter writer;
+    private final List<Migration> migrations;
+    private final int batchSize;
+    private final long batchPauseMillis;
+
+    private ExecutorService backfillExecutor;
+
+    // 버전 -> backfill 완료 시 실행할 작업 (completionLock 으로 보호)
+    private final Map<Integer, List<Runnable>> completionListeners = new HashMap<>();
+    private final Object completionLock = new Object();
+
+    public SchemaMigrator(ConnectionPool connectionPool, GroupCommitWriter writer, List<Migration> migrations,
+                          int batchSize, long batchPauseMillis) {
+        this.connectionPool = connectionPool;
+        this.writer = writer;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMillis = Math.max(0, batchPauseMillis);
+    }
+
+    /**
+     * 미적용 마이그레이션을 순서대로 적용하고, 남은 backfill 을 백그라운드에서 시작
+     */
+    public void migrate() throws SQLException {
+        writer.execute(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                return stmt.execute(CREATE_VERSION_TABLE_SQL);
+            }
+        });
+
+        Map<Integer, MigrationStatus> applied;
+        try (Connection conn = connectionPool.getConnection()) {
+            applied = loadStatus(conn);
+        }
+        for (Migration migration : migrations) {
+            if (!applied.containsKey(migration.getVersion())) {
+                apply(migration);
+            }
+        }
+
+        startPendingBackfills();
+    }
+
+    /**
+     * 마이그레이션 하나를 버전 기록과 함께 한 트랜잭션(SAVEPOINT)으로 적용
+     */
+    private void apply(Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        try {
+            long target = writer.execute(conn -> applyInTransaction(conn, migration));
+            logger.info("Applied migration {} in {}ms (backfill target id: {})",
+                        migration, System.currentTimeMillis() - start, target);
+        } catch (SQLException e) {
+            logger.error("Migration {} failed", migration, e);
+            throw e;
+        }
+    }
+
+    private long applyInTransaction(Connection conn, Migration migration) throws SQLException {
+        long target = migration.migrate(conn);
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, applied_at, status, backfill_cursor, backfill_target) "
+                + "VALUES (?, ?, ?, ?, 0, ?)")) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setString(3, LocalDateTime.now().format(TIMESTAMP_FORMAT));
+            stmt.setString(4, target > 0 ? STATUS_BACKFILLING : STATUS_COMPLETE);
+            stmt.setLong(5, Math.max(0, target));
+            stmt.executeUpdate();
+        }
+
+        if (target <= 0) {
+            migration.completeBackfill(conn);
+        }
+        return target;
+    }
+
+    /**
+     * 진행 중인 backfill 을 백그라운드 스레드에서 버전 순으로 실행
+     */
+    private synchronized void startPendingBackfills() throws SQLException {
+        boolean pending = getStatus().stream().anyMatch(status -> !status.isComplete());
+        if (!pending || backfillExecutor != null) {
+            return;
+        }
+
+        backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        backfillExecutor.submit(this::runPendingBackfills);
+    }
+
+    private void runPendingBackfills() {
+        try {
+            for (MigrationStatus status : getStatus()) {
+                if (status.isComplete()) {
+                    continue;
+                }
+                Migration migration = findMigration(status.version);
+                if (migration == null) {
+                    logger.warn("No migration registered for pending backfill V{}", status.version);
+                    continue;
+                }
+                if (!runBackfill(migration, status.backfillCursor, status.backfillTarget)) {
+                    return;
+                }
+                fireBackfillComplete(migration.getVersion());
+            }
+        } catch (SQLException e) {
+            logger.error("Backfill aborted; it will resume on next startup", e);
+        }
+    }
+
+    /**
+     * id 구간 단위 backfill - 배치마다 진행 위치와 함께 커밋
+     *
+     * @return 완료되었으면 true, 중단되었으면 false
+     */
+    private boolean runBackfill(Migration migration, long cursor, long target) throws SQLException {
+        long start = System.currentTimeMillis();
+        long lastLogged = start;
+        logger.info("Backfill {} starting at id {} of {}", migration, cursor, target);
+
+        while (cursor < target) {
+            if (Thread.currentThread().isInterrupted()) {
+                logger.info("Backfill {} interrupted at id {} of {}", migration, cursor, target);
+                return false;
+            }
+
+            long from = cursor;
+            long next = Math.min(cursor + batchSize, target);
+            writer.execute(conn -> {
+                migration.backfill(conn, from, next);
+                if (next >= target) {
+                    migration.completeBackfill(conn);
+                }
+                updateProgress(conn, migration.getVersion(), next, next >= target);
+                return next;
+            });
+            cursor = next;
+
+            long now = System.currentTimeMillis();
+            if (now - lastLogged >= 5000) {
+                logger.info("Backfill {} progress: {}/{} ({}%)", migration, cursor, target, cursor * 100 / target);
+                lastLogged = now;
+            }
+
+            if (batchPauseMillis > 0 && cursor < target) {
+                try {
+                    Thread.sleep(batchPauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        logger.info("Backfill {} completed in {}ms", migration, System.currentTimeMillis() - start);
+        return true;
+    }
+
+    /**
+     * 해당 버전의 backfill 이 완료되었는지 (적용되지 않은 버전은 false)
+     */
+    public boolean isBackfillComplete(int version) throws SQLException {
+        return getStatus().stream().anyMatch(status -> status.version == version && status.isComplete());
+    }
+
+    /**
+     * 해당 버전의 backfill 이 완료되면 listener 실행 (backfill 스레드에서 한 번)
+     * 이미 완료되었으면 호출한 스레드에서 바로 실행합니다.
+     */
+    public void onBackfillComplete(int version, Runnable listener) throws SQLException {
+        synchronized (completionLock) {
+            // 완료 기록은 커밋 후에 알리므로, 여기서 완료가 아니면 등록한 listener 는 반드시 호출됨
+            if (!isBackfillComplete(version)) {
+                completionListeners.computeIfAbsent(version, key -> new ArrayList<>()).add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    private void fireBackfillComplete(int version) {
+        List<Runnable> listeners;
+        synchronized (completionLock) {
+            listeners = completionListeners.remove(version);
+        }
+        if (listeners == null) {
+            return;
+        }
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.error("Backfill completion listener for V{} failed", version, e);
+            }
+        }
+    }
+
+    private void updateProgress(Connection conn, int version, long cursor, boolean complete) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE schema_version SET backfill_cursor = ?, status = ? WHERE version = ?")) {
+            stmt.setLong(1, cursor);
+            stmt.setString(2, complete ? STATUS_COMPLETE : STATUS_BACKFILLING);
+            stmt.setInt(3, version);
+            stmt.executeUpdate();
+        }
+    }
+
+    private Migration findMigration(int version) {
+        for (Migration migration : migrations) {
+            if (migration.getVersion() == version) {
+                return migration;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 적용된 마이그레이션과 backfill 진행 상황 조회
+     */
+    public List<MigrationStatus> getStatus() throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            return new ArrayList<>(loadStatus(conn).values());
+        }
+    }
+
+    private Map<Integer, MigrationStatus> loadStatus(Connection conn) throws SQLException {
+        Map<Integer, MigrationStatus> statusByVersion = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM schema_version ORDER BY version")) {
+            while (rs.next()) {
+                MigrationStatus status = new MigrationStatus();
+                status.version = rs.getInt("version");
+                status.description = rs.getString("description");
+                status.appliedAt = rs.getString("applied_at");
+                status.status = rs.getString("status");
+                status.backfillCursor = rs.getLong("backfill_cursor");
+                status.backfillTarget = rs.getLong("backfill_target");
+                statusByVersion.put(status.version, status);
+            }
+        }
+        return statusByVersion;
+    }
+
+    /**
+     * 현재 스키마 버전 (적용된 최대 버전)
+     */
+    public int getCurrentVersion() throws SQLException {
+        return getStatus().stream().mapToInt(status -> status.version).max().orElse(0);
+    }
+
+    /**
+     * backfill 스레드 종료 - 진행 위치는 이미 커밋되어 있으므로 다음 시작 시 이어서 진행
+     */
+    public synchronized void shutdown() {
+        if (backfillExecutor == null) {
+            return;
+        }
+        backfillExecutor.shutdownNow();
+        try {
+            if (!backfillExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Backfill thread did not stop within 10 seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        backfillExecutor = null;
+    }
+
+    /**
+     * 마이그레이션 적용 상태 클래스
+     */
+    public static class MigrationStatus {
+        public int version;
+        public String description;
+        public String appliedAt;
+        public String status;
+        public long backfillCursor;
+        public long backfillTarget;
+
+        public boolean isComplete() {
+            return STATUS_COMPLETE.equals(status);
+        }
+
+        public int getProgressPercent() {
+            return backfillTarget > 0 ? (int) (backfillCursor * 100 / backfillTarget) : 100;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("MigrationStatus{V%d %s, status=%s, progress=%d/%d (%d%%)}",
+                                 version, description, status, backfillCursor, backfillTarget, getProgressPercent());
+        }
+    }
+}
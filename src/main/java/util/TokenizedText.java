@@ -0,0 +1,220 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 감정 분석용 단어 분리 결과 (스레드별로 재사용하는 버퍼)
+ *
+ * 본문을 한 번 훑으며 한글 음절(가-힣), 영문, 숫자만 남기고 영문은 소문자로 바꿉니다. 나머지 문자는 모두
+ * 구분자이고, 남은 단어를 공백 하나로 이어 붙인 결과가 이 CharSequence 입니다. 같은 훑기에서 단어 위치,
+ * 같은 단어가 처음 나온 위치, 원문을 공백 문자로 나눈 단어 수도 구합니다.
+ * tokenize 가 돌려준 객체는 같은 스레드가 다시 tokenize 를 부르면 덮어써지므로 그 전에 다 써야 합니다.
+ */
+public final class TokenizedText implements CharSequence {
+    private static final ThreadLocal<TokenizedText> BUFFER = ThreadLocal.withInitial(TokenizedText::new);
+
+    private char[] text = new char[256];
+    private int length;
+
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private int[] hashes = new int[64];
+    private int[] firstOccurrences = new int[64];
+    private int tokenCount;
+    private int wordCount;
+
+    // 같은 단어 찾기용 해시 테이블 (slotStamps 가 이번 호출의 stamp 인 칸만 유효하므로 비우지 않음)
+    private int[] slotTokens = new int[128];
+    private int[] slotStamps = new int[128];
+    private int stamp;
+
+    private TokenizedText() {
+    }
+
+    /**
+     * 본문 단어 분리 (이 스레드의 버퍼를 덮어씀)
+     */
+    public static TokenizedText tokenize(CharSequence input) {
+        TokenizedText tokens = BUFFER.get();
+        tokens.scan(input);
+        return tokens;
+    }
+
+    private void scan(CharSequence input) {
+        int inputLength = input.length();
+        if (text.length < inputLength) {
+            text = new char[Math.max(inputLength, text.length * 2)];
+        }
+        // 단어 사이에 구분자가 하나 이상 있으므로 단어 수는 (길이 + 1) / 2 이하
+        int maxTokens = (inputLength + 1) / 2;
+        if (starts.length < maxTokens) {
+            int capacity = Math.max(maxTokens, starts.length * 2);
+            starts = new int[capacity];
+            ends = new int[capacity];
+            hashes = new int[capacity];
+            firstOccurrences = new int[capacity];
+        }
+        int slots = Integer.highestOneBit(Math.max(maxTokens, 1)) * 2;
+        if (slotTokens.length < slots) {
+            slotTokens = new int[slots];
+            slotStamps = new int[slots];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(slotStamps, 0);
+            stamp = 1;
+        }
+
+        length = 0;
+        tokenCount = 0;
+        wordCount = 0;
+        boolean inToken = false;
+        boolean inWord = false;
+        int hash = 0;
+
+        for (int i = 0; i < inputLength; i++) {
+            char c = input.charAt(i);
+
+            // 원문 단어 수 (정규식 \s 공백 기준)
+            if (isRegexSpace(c)) {
+                inWord = false;
+            } else if (!inWord) {
+                wordCount++;
+                inWord = true;
+            }
+
+            char folded = fold(c);
+            if (folded == 0) {
+                if (inToken) {
+                    endToken(hash);
+                    inToken = false;
+                }
+                continue;
+            }
+            if (!inToken) {
+                if (tokenCount > 0) {
+                    text[length++] = ' ';
+                }
+                starts[tokenCount] = length;
+                hash = 0;
+                inToken = true;
+            }
+            text[length++] = folded;
+            hash = 31 * hash + folded;
+        }
+        if (inToken) {
+            endToken(hash);
+        }
+
+        // String.split 은 앞쪽 공백 앞의 빈 문자열도 단어로 셈
+        if (wordCount > 0 && isRegexSpace(input.charAt(0))) {
+            wordCount++;
+        }
+    }
+
+    private void endToken(int hash) {
+        int token = tokenCount++;
+        ends[token] = length;
+        hashes[token] = hash;
+        firstOccurrences[token] = token;
+
+        int mask = slotTokens.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            if (slotStamps[slot] != stamp) {
+                slotStamps[slot] = stamp;
+                slotTokens[slot] = token;
+                return;
+            }
+            int other = slotTokens[slot];
+            if (hashes[other] == hash && sameToken(other, token)) {
+                firstOccurrences[token] = other;
+                return;
+            }
+        }
+    }
+
+    private boolean sameToken(int a, int b) {
+        return Arrays.equals(text, starts[a], ends[a], text, starts[b], ends[b]);
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 남길 문자는 소문자로, 구분자는 0 으로 (Character.toLowerCase 후 [가-힣a-z0-9] 만 남기는 것과 같음)
+     */
+    private static char fold(char c) {
+        if (c < 0x80) {
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                return c;
+            }
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : 0;
+        }
+        if (c >= '가' && c <= '힣') {
+            return c;
+        }
+        // 소문자가 영문인 다른 문자는 켈빈 기호와 점 있는 대문자 I 뿐
+        return c == '\u212A' ? 'k' : c == '\u0130' ? 'i' : 0;
+    }
+
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    public int getTokenStart(int token) {
+        return starts[token];
+    }
+
+    public int getTokenEnd(int token) {
+        return ends[token];
+    }
+
+    public int getTokenLength(int token) {
+        return ends[token] - starts[token];
+    }
+
+    /**
+     * 같은 단어가 처음 나온 단어 번호 (처음 나온 단어면 자기 자신)
+     */
+    public int getFirstOccurrence(int token) {
+        return firstOccurrences[token];
+    }
+
+    /**
+     * 원문을 공백 문자로 나눈 단어 수 (content.split("\\s+").length 와 같음)
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public String getToken(int token) {
+        return new String(text, starts[token], ends[token] - starts[token]);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, length);
+        return text[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(text, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(text, 0, length);
+    }
+}
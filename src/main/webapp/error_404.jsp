@@ -27,7 +27,7 @@
         <a href="index.jsp"><button style="margin: 5px;">🏠 홈으로</button></a>
         <a href="write.jsp"><button style="margin: 5px;">✍️ 일기 작성</button></a>
         <a href="list.jsp"><button style="margin: 5px;">📝 일기 목록</button></a>
-        <a href="stats.jsp"><button style="margin: 5px;">📊 감정 통계</button></a>
+        <a href="stats?action=page"><button style="margin: 5px;">📊 감정 통계</button></a>
     </div>
     
     <div style="text-align: center; margin-top: 20px; font-size: 12px; color: #888;">
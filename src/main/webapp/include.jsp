@@ -8,5 +8,5 @@
     <a href="index.jsp">홈</a>
     <a href="write.jsp">일기 작성</a>
     <a href="list.jsp">일기 목록</a>
-    <a href="stats.jsp">감정 통계</a>
+    <a href="stats?action=page">감정 통계</a>
 </div>
@@ -13,7 +13,7 @@
     <div class="menu">
         <a href="write.jsp"><button>일기 작성하기</button></a>
         <a href="list.jsp"><button>일기 목록 보기</button></a>
-        <a href="stats.jsp"><button>감정 통계 보기</button></a>
+        <a href="stats?action=page"><button>감정 통계 보기</button></a>
     </div>
 </div>
 </body>
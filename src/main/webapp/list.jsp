@@ -64,6 +64,10 @@
             margin-bottom: 20px;
             text-align: center;
         }
+        .diary-content mark {
+            background-color: yellow;
+            font-weight: bold;
+        }
         .no-results {
             text-align: center;
             padding: 40px;
@@ -113,9 +117,11 @@
                     String sortBy = (String) request.getAttribute("sortBy");
                     String descSelected = "date_desc".equals(sortBy) ? "selected" : "";
                     String ascSelected = "date_asc".equals(sortBy) ? "selected" : "";
+                    String relevanceSelected = "relevance".equals(sortBy) ? "selected" : "";
                 %>
                 <option value="date_desc" <%= descSelected %>>최신순</option>
                 <option value="date_asc" <%= ascSelected %>>오래된순</option>
+                <option value="relevance" <%= relevanceSelected %>>관련도순 (검색 시)</option>
             </select>
 
             <label for="pageSize">표시 개수:</label>
@@ -144,19 +150,26 @@
     <!-- 일기 목록 -->
     <%
         List<Diary> diaryList = (List<Diary>) request.getAttribute("diaryList");
+        Map<Long, String> searchSnippets = (Map<Long, String>) request.getAttribute("searchSnippets");
         if (diaryList != null && !diaryList.isEmpty()) {
             for (Diary diary : diaryList) {
                 String content = diary.getContent();
                 String searchKeyword = (String) request.getAttribute("searchKeyword");
+                String preview;
                 
-                // 검색어 하이라이트
-                if (searchKeyword != null && !searchKeyword.trim().isEmpty()) {
-                    content = content.replaceAll("(?i)(" + searchKeyword + ")", 
-                        "<span style='background-color: yellow; font-weight: bold;'>$1</span>");
+                if (searchSnippets != null && searchSnippets.get(diary.getId()) != null) {
+                    // 전문 검색 발췌문 (검색어 하이라이트 포함)
+                    preview = searchSnippets.get(diary.getId());
+                } else {
+                    // 검색어 하이라이트
+                    if (searchKeyword != null && !searchKeyword.trim().isEmpty()) {
+                        content = content.replaceAll("(?i)(" + java.util.regex.Pattern.quote(searchKeyword) + ")", 
+                            "<mark>$1</mark>");
+                    }
+                    
+                    // 미리보기 텍스트 (첫 200자)
+                    preview = content.length() > 200 ? content.substring(0, 200) + "..." : content;
                 }
-                
-                // 미리보기 텍스트 (첫 200자)
-                String preview = content.length() > 200 ? content.substring(0, 200) + "..." : content;
     %>
         <div class="diary-entry">
             <div class="diary-meta">
@@ -180,30 +193,28 @@
             if (totalPages != null && totalPages > 1) {
                 String baseUrl = "list?emotion=" + (selectedEmotion != null ? selectedEmotion : "") +
                                "&date=" + (request.getAttribute("selectedDate") != null ? request.getAttribute("selectedDate") : "") +
+                               "&from=" + (request.getAttribute("fromDate") != null ? request.getAttribute("fromDate") : "") +
+                               "&to=" + (request.getAttribute("toDate") != null ? request.getAttribute("toDate") : "") +
                                "&search=" + (request.getAttribute("searchKeyword") != null ? request.getAttribute("searchKeyword") : "") +
                                "&sortBy=" + (sortBy != null ? sortBy : "date_desc") +
                                "&pageSize=" + pageSize;
     %>
         <div class="pagination">
+            <%
+                String previousCursor = (String) request.getAttribute("previousCursor");
+                String nextCursor = (String) request.getAttribute("nextCursor");
+            %>
             <% if (hasPrevious != null && hasPrevious) { %>
                 <a href="<%= baseUrl %>&page=1">&laquo; 처음</a>
-                <a href="<%= baseUrl %>&page=<%= currentPage - 1 %>">&lsaquo; 이전</a>
+                <% if (previousCursor != null) { %>
+                <a href="<%= baseUrl %>&page=<%= currentPage - 1 %>&before=<%= java.net.URLEncoder.encode(previousCursor, "UTF-8") %>">&lsaquo; 이전</a>
+                <% } %>
             <% } %>
             
-            <%
-                int startPage = Math.max(1, currentPage - 2);
-                int endPage = Math.min(totalPages, currentPage + 2);
-                for (int i = startPage; i <= endPage; i++) {
-                    if (i == currentPage) {
-            %>
-                <span class="current"><%= i %></span>
-            <% } else { %>
-                <a href="<%= baseUrl %>&page=<%= i %>"><%= i %></a>
-            <% } } %>
+            <span class="current"><%= currentPage %></span>
             
-            <% if (hasNext != null && hasNext) { %>
-                <a href="<%= baseUrl %>&page=<%= currentPage + 1 %>">다음 &rsaquo;</a>
-                <a href="<%= baseUrl %>&page=<%= totalPages %>">마지막 &raquo;</a>
+            <% if (hasNext != null && hasNext && nextCursor != null) { %>
+                <a href="<%= baseUrl %>&page=<%= currentPage + 1 %>&after=<%= java.net.URLEncoder.encode(nextCursor, "UTF-8") %>">다음 &rsaquo;</a>
             <% } %>
         </div>
         
@@ -231,7 +242,7 @@
     <!-- 액션 버튼 -->
     <div style="text-align: center; margin-top: 30px;">
         <a href="write.jsp"><button>✍️ 새 일기 작성</button></a>
-        <a href="stats.jsp"><button style="background-color: #17a2b8;">📊 감정 통계</button></a>
+        <a href="stats?action=page"><button style="background-color: #17a2b8;">📊 감정 통계</button></a>
         <a href="index.jsp"><button style="background-color: #6c757d;">🏠 홈으로</button></a>
     </div>
 </div>
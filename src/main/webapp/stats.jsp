@@ -1,5 +1,7 @@
 ﻿<%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ page import="java.util.Map" %>
+<%@ page import="java.util.List" %>
+<%@ page import="util.KeywordSketch" %>
 <!DOCTYPE html>
 <html>
 <head>
@@ -119,6 +121,21 @@
     </div>
     <% } %>
 
+    <!-- 이번 달 자주 쓴 단어 -->
+    <%
+        List<KeywordSketch.Entry> topKeywords = (List<KeywordSketch.Entry>) request.getAttribute("topKeywords");
+        if (topKeywords != null && !topKeywords.isEmpty()) {
+    %>
+    <div class="emotion-summary">
+        <h3>🔑 이번 달 자주 쓴 단어</h3>
+        <p>
+            <% for (KeywordSketch.Entry keyword : topKeywords) { %>
+            <span style="display: inline-block; margin: 4px 8px;"><strong><%= keyword.keyword %></strong> <small><%= keyword.count %>회</small></span>
+            <% } %>
+        </p>
+    </div>
+    <% } %>
+
     <!-- 차트 컨트롤 -->
     <div class="controls">
         <button onclick="showEmotionChart()" id="emotionBtn" class="active">감정 분포</button>
@@ -23,7 +23,7 @@
         <div style="text-align: center; margin-top: 30px;">
             <a href="write.jsp"><button style="margin: 5px;">새 일기 작성</button></a>
             <a href="list.jsp"><button style="margin: 5px;">일기 목록 보기</button></a>
-            <a href="stats.jsp"><button style="margin: 5px;">감정 통계 보기</button></a>
+            <a href="stats?action=page"><button style="margin: 5px;">감정 통계 보기</button></a>
             <a href="index.jsp"><button style="margin: 5px; background-color: #6c757d;">홈으로</button></a>
         </div>
         